@@ -0,0 +1,79 @@
+package com.coruja.benchmark;
+
+import com.coruja.util.LongHashSet;
+import com.coruja.util.PlacaCodec;
+import com.coruja.util.RadarMensagemParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta da lista de placas monitoradas com 1 mil, 100 mil e 1 milhão de placas.
+ * A maioria das leituras de radar não está na lista; {@code percentualAcertos} controla a proporção.
+ * Compara o {@link LongHashSet} de placas codificadas (usado pelo IndicePlacasAtivas) com um HashSet de Strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IndicePlacasBenchmark {
+
+    private static final int CONSULTAS = 1 << 16;
+
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    @Param({"1"})
+    public int percentualAcertos;
+
+    private LongHashSet codificadas;
+    private Set<String> textos;
+    private byte[][] mensagens;
+    private String[] placasConsultadas;
+    private int posicao;
+
+    @Setup
+    public void preparar() {
+        PayloadsRadar payloads = new PayloadsRadar(7);
+        codificadas = new LongHashSet(tamanho);
+        textos = new HashSet<>(tamanho * 2);
+        String[] monitoradas = new String[tamanho];
+        int i = 0;
+        while (i < tamanho) {
+            String placa = payloads.placa();
+            if (textos.add(placa)) {
+                codificadas.add(PlacaCodec.codificar(placa));
+                monitoradas[i++] = placa;
+            }
+        }
+
+        mensagens = new byte[CONSULTAS][];
+        placasConsultadas = new String[CONSULTAS];
+        for (int j = 0; j < CONSULTAS; j++) {
+            boolean acerto = j % 100 < percentualAcertos;
+            String placa = acerto ? monitoradas[j % tamanho] : payloads.placa();
+            placasConsultadas[j] = placa;
+            mensagens[j] = PayloadsRadar.bytes(payloads.mensagem(placa));
+        }
+    }
+
+    /** Caminho completo atual: código da placa nos bytes + consulta no conjunto primitivo. */
+    @Benchmark
+    public boolean mensagemNoIndiceCodificado() {
+        return codificadas.contains(RadarMensagemParser.codigoDaPlaca(mensagens[posicao++ & (CONSULTAS - 1)]));
+    }
+
+    @Benchmark
+    public boolean placaNoIndiceCodificado() {
+        return codificadas.contains(PlacaCodec.codificar(placasConsultadas[posicao++ & (CONSULTAS - 1)]));
+    }
+
+    @Benchmark
+    public boolean placaNoHashSetDeStrings() {
+        return textos.contains(placasConsultadas[posicao++ & (CONSULTAS - 1)]);
+    }
+}
@@ -0,0 +1,97 @@
+package com.coruja.benchmark;
+
+import com.coruja.entities.AlertaPassagem;
+import com.coruja.entities.PlacaMonitorada;
+import com.coruja.services.MensagemAlertaFormatter;
+import com.coruja.services.MensagemAlertaFormatter.MensagensAlerta;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do texto do Telegram para um alerta (grupo + privado): a versão antiga com
+ * String.format contra os templates compilados do {@link MensagemAlertaFormatter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MensagemTelegramBenchmark {
+
+    private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private AlertaPassagem alerta;
+    private MensagemAlertaFormatter formatter;
+
+    @Setup
+    public void preparar() {
+        PlacaMonitorada placa = PlacaMonitorada.builder()
+                .placa("ABC1D23").marcaModelo("VW/GOL 1.0").cor("PRATA")
+                .motivo("Roubo/Furto").interessado("DIG Ourinhos").telegramChatId("123456789")
+                .build();
+        alerta = AlertaPassagem.builder()
+                .concessionaria("CART").data(LocalDate.of(2025, 3, 14)).hora(LocalTime.of(14, 35, 12))
+                .placa("ABC1D23").praca("PRACA OURINHOS").rodovia("SP-270").km("372,500").sentido("OESTE")
+                .placaMonitorada(placa)
+                .build();
+        formatter = new MensagemAlertaFormatter(new StandardEnvironment());
+    }
+
+    @Benchmark
+    public String[] stringFormat() {
+        String grupo = formatTelegramMessage(alerta);
+        String privado = "⚠️ <b>SEU VEÍCULO FOI DETECTADO!</b> ⚠️\n\n" + grupo;
+        return new String[]{grupo, privado};
+    }
+
+    @Benchmark
+    public MensagensAlerta templateCompilado() {
+        return formatter.formatar(alerta, true);
+    }
+
+    // Cópia da implementação anterior do MonitoramentoService, mantida como referência
+    private static String formatTelegramMessage(AlertaPassagem alerta) {
+        PlacaMonitorada placaMonitorada = alerta.getPlacaMonitorada();
+        String dataFormatada = alerta.getData().format(dateFormatter);
+        String horaFormatada = alerta.getHora().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+
+        List<String> placaInfoParts = new ArrayList<>();
+        if (isValid(placaMonitorada.getMarcaModelo())) placaInfoParts.add(placaMonitorada.getMarcaModelo());
+        if (isValid(placaMonitorada.getCor())) placaInfoParts.add(placaMonitorada.getCor());
+        String placaInfoAdicional = String.join(", ", placaInfoParts);
+
+        List<String> localizacaoParts = new ArrayList<>();
+        if (isValid(alerta.getRodovia())) localizacaoParts.add(alerta.getRodovia());
+        if (isValid(alerta.getKm())) localizacaoParts.add("km " + alerta.getKm());
+        if (isValid(alerta.getSentido())) localizacaoParts.add("Sentido: " + alerta.getSentido());
+        if (isValid(alerta.getPraca())) localizacaoParts.add(alerta.getPraca());
+        String localizacaoCompleta = String.join(" - ", localizacaoParts);
+
+        return String.format(
+                "🚨 <b>Concessionária %s</b> 🚨\n" +
+                        "🗓️ Data: %s\n" +
+                        "⏰ Horário: %s\n" +
+                        "🚨 Placa: <b>%s</b> \n" +
+                        "🚗 Marca/Modelo: %s \n" +
+                        "📍 Local: %s\n\n" +
+                        "⚠️ Motivo: %s\n" +
+                        "👤 Interessado: %s",
+                alerta.getConcessionaria(), dataFormatada, horaFormatada,
+                placaMonitorada.getPlaca(), placaInfoAdicional,
+                localizacaoCompleta,
+                placaMonitorada.getMotivo(), placaMonitorada.getInteressado()
+        );
+    }
+
+    private static boolean isValid(String value) {
+        return value != null && !value.isBlank() && !"N/A".equalsIgnoreCase(value);
+    }
+}
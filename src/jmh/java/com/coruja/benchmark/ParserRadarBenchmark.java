@@ -0,0 +1,88 @@
+package com.coruja.benchmark;
+
+import com.coruja.dto.RadarMensagem;
+import com.coruja.util.RadarMensagemParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpretação das mensagens de radar: o caminho antigo (String + split por regex)
+ * contra o {@link RadarMensagemParser} sobre os bytes da mensagem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserRadarBenchmark {
+
+    private static final int QUANTIDADE = 4096; // potência de 2, para o índice circular
+
+    private byte[][] mensagens;
+    private int posicao;
+
+    @Setup
+    public void preparar() {
+        PayloadsRadar payloads = new PayloadsRadar(42);
+        mensagens = new byte[QUANTIDADE][];
+        for (int i = 0; i < QUANTIDADE; i++) {
+            mensagens[i] = PayloadsRadar.bytes(payloads.mensagem(payloads.placa()));
+        }
+    }
+
+    private byte[] proxima() {
+        return mensagens[posicao++ & (QUANTIDADE - 1)];
+    }
+
+    /** Extração só da placa, como era feito para toda mensagem recebida. */
+    @Benchmark
+    public String placaComSplit() {
+        return new String(proxima(), StandardCharsets.UTF_8).split("\\|")[3];
+    }
+
+    /** Caminho atual para placas fora da lista: código da placa direto dos bytes, sem alocação. */
+    @Benchmark
+    public long codigoDaPlacaNosBytes() {
+        return RadarMensagemParser.codigoDaPlaca(proxima());
+    }
+
+    @Benchmark
+    public void mensagemCompletaComSplit(Blackhole bh) {
+        String[] parts = new String(proxima(), StandardCharsets.UTF_8).split("\\|");
+        String concessionaria = parts[0].toUpperCase();
+        LocalDate data = LocalDate.parse(parts[1]);
+        LocalTime hora = LocalTime.parse(parts[2]);
+        String praca = "N/A", rodovia = "N/A", km = "N/A", sentido = "N/A";
+        if ("RONDON".equals(concessionaria)) {
+            if (parts.length >= 7) {
+                rodovia = parts[4];
+                km = parts[5];
+                sentido = parts[6];
+            }
+        } else if (parts.length >= 8) {
+            praca = parts[4];
+            rodovia = parts[5];
+            km = parts[6];
+            sentido = parts[7];
+        }
+        bh.consume(concessionaria);
+        bh.consume(data);
+        bh.consume(hora);
+        bh.consume(parts[3]);
+        bh.consume(praca);
+        bh.consume(rodovia);
+        bh.consume(km);
+        bh.consume(sentido);
+    }
+
+    @Benchmark
+    public RadarMensagem mensagemCompletaNosBytes() {
+        return RadarMensagemParser.interpretar(proxima());
+    }
+}
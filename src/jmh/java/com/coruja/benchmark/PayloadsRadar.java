@@ -0,0 +1,61 @@
+package com.coruja.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+
+/**
+ * Gera mensagens de radar sintéticas nos layouts reais das concessionárias
+ * (RONDON com 7 campos; CART, EIXO e ENTREVIAS com 8) e placas nos padrões antigo e Mercosul.
+ * A semente é fixa para que as execuções sejam comparáveis.
+ */
+final class PayloadsRadar {
+
+    static final String[] CONCESSIONARIAS = {"RONDON", "CART", "EIXO", "ENTREVIAS"};
+
+    private static final String[] RODOVIAS = {"SP-225", "SP-270", "SP-280", "SP-300", "SP-330", "SP-425"};
+    private static final String[] PRACAS = {"PRACA ASSIS", "PRACA OURINHOS", "PRACA BAURU", "PRACA MARILIA", "PRACA ITU"};
+    private static final String[] SENTIDOS = {"NORTE", "SUL", "LESTE", "OESTE", "CRESCENTE", "DECRESCENTE"};
+
+    private final SplittableRandom random;
+
+    PayloadsRadar(long semente) {
+        this.random = new SplittableRandom(semente);
+    }
+
+    /**
+     * Placa aleatória: metade no padrão antigo (ABC1234), metade Mercosul (ABC1D23).
+     */
+    String placa() {
+        char[] placa = new char[7];
+        for (int i = 0; i < 3; i++) {
+            placa[i] = (char) ('A' + random.nextInt(26));
+        }
+        placa[3] = (char) ('0' + random.nextInt(10));
+        placa[4] = random.nextBoolean() ? (char) ('A' + random.nextInt(26)) : (char) ('0' + random.nextInt(10));
+        placa[5] = (char) ('0' + random.nextInt(10));
+        placa[6] = (char) ('0' + random.nextInt(10));
+        return new String(placa);
+    }
+
+    String mensagem(String placa) {
+        String concessionaria = CONCESSIONARIAS[random.nextInt(CONCESSIONARIAS.length)];
+        LocalDate data = LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365));
+        LocalTime hora = LocalTime.ofSecondOfDay(random.nextInt(86_400));
+        String rodovia = RODOVIAS[random.nextInt(RODOVIAS.length)];
+        String km = random.nextInt(500) + "," + random.nextInt(1000);
+        String sentido = SENTIDOS[random.nextInt(SENTIDOS.length)];
+
+        StringBuilder mensagem = new StringBuilder(96)
+                .append(concessionaria).append('|').append(data).append('|').append(hora).append('|').append(placa);
+        if (!"RONDON".equals(concessionaria)) {
+            mensagem.append('|').append(PRACAS[random.nextInt(PRACAS.length)]);
+        }
+        return mensagem.append('|').append(rodovia).append('|').append(km).append('|').append(sentido).toString();
+    }
+
+    static byte[] bytes(String mensagem) {
+        return mensagem.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,73 @@
+package com.coruja.benchmark;
+
+import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.entities.AlertaPassagem;
+import com.coruja.entities.PlacaMonitorada;
+import com.coruja.services.ConversorAlertaConfirmado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização em JSON do {@link AlertaPassagemDTO}, o payload do evento alerta.confirmado e do SSE.
+ * O ObjectMapper é configurado como o do Spring Boot (JavaTimeModule, datas em ISO-8601).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoAlertaBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private ConversorAlertaConfirmado conversor;
+    private AlertaPassagemDTO alerta;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = objectMapper.writerFor(AlertaPassagemDTO.class);
+        conversor = new ConversorAlertaConfirmado(objectMapper, List.of());
+
+        PlacaMonitorada placa = PlacaMonitorada.builder()
+                .Id(10L).placa("ABC1D23").marcaModelo("VW/GOL 1.0").cor("PRATA").statusAtivo(true)
+                .motivo("Roubo/Furto").interessado("DIG Ourinhos").observacao("Veículo com adesivo na traseira")
+                .createdAt(LocalDateTime.of(2025, 1, 2, 8, 0)).updatedAt(LocalDateTime.of(2025, 2, 1, 9, 30))
+                .build();
+        alerta = new AlertaPassagemDTO(AlertaPassagem.builder()
+                .id(123_456L).concessionaria("ENTREVIAS").data(LocalDate.of(2025, 3, 14)).hora(LocalTime.of(14, 35, 12))
+                .placa("ABC1D23").praca("PRACA OURINHOS").rodovia("SP-270").km("372,500").sentido("OESTE")
+                .timestampAlerta(LocalDateTime.of(2025, 3, 14, 14, 35, 13))
+                .placaMonitorada(placa)
+                .build());
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(alerta);
+    }
+
+    @Benchmark
+    public byte[] writerReutilizadoParaBytes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(alerta);
+    }
+
+    // Caminho atual do alerta.confirmado: gerador de streaming em buffer reaproveitado por thread
+    @Benchmark
+    public byte[] conversorAlertaConfirmado() {
+        return conversor.serializar(alerta);
+    }
+}
@@ -0,0 +1,69 @@
+package com.coruja.config;
+
+import com.coruja.util.EstagioPipeline;
+import com.coruja.util.ExecutorParticionado;
+import com.coruja.util.JanelaDeduplicacao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+@Configuration
+public class ProcessamentoConfig {
+
+    public static final String ESTAGIO_PUBLICACAO = "publicacaoEstagio";
+    public static final String JANELA_REENTREGAS = "janelaReentregas";
+
+    /**
+     * Partições de processamento de alertas, chaveadas pela placa: alertas da mesma placa
+     * são processados em ordem, placas diferentes em paralelo.
+     * Com 0 (padrão), usa uma partição por núcleo disponível.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorParticionado alertaExecutor(
+            @Value("${monitoramento.alertas.particoes:0}") int particoes,
+            @Value("${monitoramento.alertas.fila-por-particao:1000}") int capacidadeFila) {
+        int quantidade = particoes > 0 ? particoes : Runtime.getRuntime().availableProcessors();
+        return new ExecutorParticionado("alerta-particao", quantidade, capacidadeFila);
+    }
+
+    /**
+     * Estágio de publicação do evento alerta.confirmado no RabbitMQ, alimentado pelo OutboxRelay.
+     * As mensagens do Telegram não passam por aqui: o TelegramDispatcher já tem fila e limites próprios.
+     */
+    @Bean(name = ESTAGIO_PUBLICACAO, destroyMethod = "close")
+    public EstagioPipeline publicacaoEstagio(
+            @Value("${monitoramento.pipeline.publicacao.threads:1}") int threads,
+            @Value("${monitoramento.pipeline.publicacao.fila:5000}") int capacidadeFila,
+            @Value("${monitoramento.pipeline.espera-maxima-ms:2000}") long esperaMaximaMs) {
+        return new EstagioPipeline("alerta-publicacao", threads, capacidadeFila, esperaMaximaMs);
+    }
+
+    /**
+     * Janela de deduplicação de leituras: a mesma placa lida de novo na mesma concessionária, local e sentido
+     * dentro de {@code janela-segundos} não gera outro alerta. Com 0, todas as leituras geram alerta.
+     */
+    @Bean
+    @Primary
+    public JanelaDeduplicacao janelaDeduplicacao(
+            @Value("${monitoramento.alertas.dedup.janela-segundos:60}") long janelaSegundos,
+            @Value("${monitoramento.alertas.dedup.baldes:6}") int baldes,
+            @Value("${monitoramento.alertas.dedup.maximo-por-balde:100000}") int maximoPorBalde) {
+        return new JanelaDeduplicacao(Duration.ofSeconds(janelaSegundos), baldes, maximoPorBalde);
+    }
+
+    /**
+     * Janela das leituras exatas (placa, concessionária, local, sentido, data e hora da leitura): reconhece a
+     * mesma mensagem reentregue pelo broker por {@code reentrega-segundos}, bem mais que a janela do local,
+     * sem suprimir passagens novas. Com 0, desativada. Fica em memória: não cobre reentregas após reiniciar o serviço.
+     */
+    @Bean(name = JANELA_REENTREGAS)
+    public JanelaDeduplicacao janelaReentregas(
+            @Value("${monitoramento.alertas.dedup.reentrega-segundos:900}") long reentregaSegundos,
+            @Value("${monitoramento.alertas.dedup.baldes:6}") int baldes,
+            @Value("${monitoramento.alertas.dedup.maximo-por-balde:100000}") int maximoPorBalde) {
+        return new JanelaDeduplicacao(Duration.ofSeconds(reentregaSegundos), baldes, maximoPorBalde);
+    }
+}
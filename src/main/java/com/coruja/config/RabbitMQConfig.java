@@ -1,9 +1,14 @@
 package com.coruja.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,6 +19,9 @@ public class RabbitMQConfig {
     public static final String ROUTING_KEY_PATTERN = "radares.*"; // Ouve tudo
     public static final String ALERTAS_QUEUE_NAME = "alertas_confirmados_queue";
     public static final String ALERTAS_ROUTING_KEY = "alerta.confirmado";
+    public static final String RADAR_BATCH_CONTAINER_FACTORY = "radarBatchContainerFactory";
+    // Alterações na lista de placas monitoradas, para os índices em memória das outras réplicas
+    public static final String WATCHLIST_ROUTING_KEY = "watchlist.alterada";
 
     @Bean
     public TopicExchange topicExchange() {
@@ -41,4 +49,47 @@ public class RabbitMQConfig {
     public Binding alertasBffBinding(Queue alertasBffQueue, TopicExchange exchange) {
         return BindingBuilder.bind(alertasBffQueue).to(exchange).with(ALERTAS_ROUTING_KEY);
     }
+
+    /**
+     * Fila própria de cada instância (nome gerado, exclusiva e apagada ao desconectar): toda réplica
+     * recebe uma cópia de cada alteração da lista de placas, ao contrário das filas compartilhadas acima.
+     */
+    @Bean
+    public Queue watchlistQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding watchlistBinding(Queue watchlistQueue, TopicExchange exchange) {
+        return BindingBuilder.bind(watchlistQueue).to(exchange).with(WATCHLIST_ROUTING_KEY);
+    }
+
+    /**
+     * Container em lote para a fila de radares: entrega até {@code batch-size} mensagens por vez
+     * (ou o que chegou até {@code receive-timeout-ms}) e confirma o lote inteiro de uma só vez.
+     * <p>
+     * {@code consumers} define quantos consumidores concorrentes leem a fila. Com um único consumidor
+     * (padrão) a ordem das leituras de uma mesma placa é preservada de ponta a ponta, pois o paralelismo
+     * fica nas partições por placa ({@code monitoramento.alertas.particoes}). Com mais de um consumidor,
+     * leituras da mesma placa em lotes diferentes podem ser processadas fora de ordem.
+     */
+    @Bean(name = RADAR_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory radarBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${monitoramento.radar.prefetch:250}") int prefetch,
+            @Value("${monitoramento.radar.batch-size:100}") int batchSize,
+            @Value("${monitoramento.radar.receive-timeout-ms:200}") long receiveTimeoutMs,
+            @Value("${monitoramento.radar.consumers:1}") int consumers) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(consumers);
+        factory.setMaxConcurrentConsumers(consumers);
+        return factory;
+    }
 }
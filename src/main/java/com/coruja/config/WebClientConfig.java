@@ -1,14 +1,64 @@
 package com.coruja.config;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Pool de conexões compartilhado pelas chamadas HTTP de saída (API do Telegram).
+     * Limita conexões abertas e requisições aguardando conexão, e descarta conexões ociosas,
+     * para que uma api.telegram.org travada não acumule requisições sem limite.
+     * As métricas do pool ficam em /actuator/metrics (reactor.netty.connection.provider.*).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider httpConnectionProvider(
+            @Value("${http.client.max-connections:50}") int maxConnections,
+            @Value("${http.client.pending-acquire-max:500}") int pendingAcquireMax,
+            @Value("${http.client.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${http.client.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${http.client.max-life-ms:300000}") long maxLifeMs,
+            @Value("${http.client.evict-interval-ms:60000}") long evictIntervalMs) {
+        return ConnectionProvider.builder("http-saida")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(
+            ConnectionProvider httpConnectionProvider,
+            @Value("${http.client.connect-timeout-ms:3000}") int connectTimeoutMs,
+            @Value("${http.client.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${http.client.write-timeout-ms:10000}") long writeTimeoutMs,
+            @Value("${http.client.response-timeout-ms:10000}") long responseTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(httpConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .doOnConnected(conexao -> conexao
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeoutMs, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)))
+                // O token do bot faz parte da URL; a tag da métrica usa um marcador no lugar dele
+                .metrics(true, uri -> uri.replaceFirst("/bot[^/]+", "/bot{token}"));
+
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
     }
 }
@@ -3,16 +3,27 @@ package com.coruja.controllers;
 import com.coruja.dto.AlertaPassagemDTO;
 import com.coruja.dto.PlacaMonitoradaDTO;
 import com.coruja.entities.AlertaPassagem;
+import com.coruja.services.AlertaStream;
+import com.coruja.services.ImportacaoPlacasService;
+import com.coruja.services.ImportacaoPlacasService.Formato;
 import com.coruja.services.MonitoramentoService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -22,10 +33,17 @@ import java.util.Map;
 public class MonitoramentoController {
 
     private final MonitoramentoService service;
+    private final AlertaStream alertaStream;
+    private final ImportacaoPlacasService importacaoService;
+
+    private static final String NDJSON = "application/x-ndjson";
 
     @Autowired
-    public MonitoramentoController(MonitoramentoService service) {
+    public MonitoramentoController(MonitoramentoService service, AlertaStream alertaStream,
+                                   ImportacaoPlacasService importacaoService) {
         this.service = service;
+        this.alertaStream = alertaStream;
+        this.importacaoService = importacaoService;
     }
 
     @GetMapping("/ultimos")
@@ -34,6 +52,18 @@ public class MonitoramentoController {
         return ResponseEntity.ok(ultimos);
     }
 
+    /**
+     * Transmissão ao vivo dos alertas confirmados (Server-Sent Events, evento "alerta").
+     * Ex: GET /api/monitoramento/alertas/stream
+     * Ao reconectar, o navegador envia o cabeçalho Last-Event-ID e recebe os alertas perdidos
+     * que ainda estiverem entre os últimos mantidos em memória.
+     */
+    @GetMapping(path = "/alertas/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AlertaPassagemDTO>> streamAlertas(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoIdRecebido) {
+        return alertaStream.assinar(ultimoIdRecebido);
+    }
+
     /**
      * Endpoint para buscar uma única placa monitorada pelo seu ID.
      * Ex: GET /api/monitoramento/1
@@ -63,14 +93,13 @@ public class MonitoramentoController {
      * Envia os dados no corpo da requisição em formato JSON.
      */
     @PostMapping
-    public ResponseEntity<PlacaMonitoradaDTO> create(@RequestBody PlacaMonitoradaDTO dto) {
+    public ResponseEntity<?> create(@RequestBody PlacaMonitoradaDTO dto) {
         try {
             PlacaMonitoradaDTO created = service.create(dto);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (IllegalArgumentException e) {
-            // Retorna 400 Bad Request (ou 409 Conflict) com a mensagem de "Placa já existe"
-            Map<String, String> errorResponse = Collections.singletonMap("message", e.getMessage());
-            return ResponseEntity.badRequest().body((PlacaMonitoradaDTO) errorResponse);
+            // Retorna 400 Bad Request com a mensagem de "Placa já existe"
+            return requisicaoInvalida(e);
         }
     }
 
@@ -78,16 +107,14 @@ public class MonitoramentoController {
      * Endpoint para atualizar uma placa monitorada pelo seu ID.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<PlacaMonitoradaDTO> update(@PathVariable Long id, @RequestBody PlacaMonitoradaDTO dto) {
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody PlacaMonitoradaDTO dto) {
         try {
             PlacaMonitoradaDTO updated = service.update(id, dto);
             return ResponseEntity.ok(updated);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (IllegalArgumentException e) {
-            // ✅ SIMPLIFICADO
-            Map<String, String> errorResponse = Collections.singletonMap("message", e.getMessage());
-            return ResponseEntity.badRequest().body((PlacaMonitoradaDTO) errorResponse);
+            return requisicaoInvalida(e);
         }
     }
 
@@ -104,9 +131,77 @@ public class MonitoramentoController {
         }
     }
 
+    /**
+     * Importação em lote de placas (cadastra as novas e atualiza as existentes).
+     * Ex: POST /api/monitoramento/importacao com Content-Type text/csv (cabeçalho obrigatório com a coluna placa)
+     * ou application/x-ndjson (um objeto JSON por linha, com os mesmos campos do cadastro).
+     * Retorna o resultado de cada linha (INSERIDA, ATUALIZADA ou ERRO).
+     */
+    @PostMapping(path = "/importacao", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<?> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo,
+            @RequestParam(defaultValue = ",") char separador,
+            InputStream corpo) throws IOException {
+        Formato formato = MediaType.parseMediaType(NDJSON).includes(tipo) ? Formato.NDJSON : Formato.CSV;
+        try {
+            return ResponseEntity.ok(importacaoService.importar(corpo, formato, separador));
+        } catch (IllegalArgumentException e) {
+            return requisicaoInvalida(e);
+        }
+    }
+
+    /**
+     * Exportação de todas as placas monitoradas, escrita direto na resposta.
+     * Ex: GET /api/monitoramento/exportacao?formato=csv  (ou formato=ndjson)
+     */
+    @GetMapping("/exportacao")
+    public ResponseEntity<?> exportar(
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(defaultValue = ",") char separador) {
+        Formato escolhido;
+        try {
+            escolhido = Formato.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return requisicaoInvalida(new IllegalArgumentException("Formato inválido: " + formato + ". Aceitos: csv, ndjson."));
+        }
+        String extensao = escolhido == Formato.CSV ? "csv" : "ndjson";
+        MediaType tipo = escolhido == Formato.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType(NDJSON);
+        StreamingResponseBody corpo = saida -> importacaoService.exportar(saida, escolhido, separador);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"placas-monitoradas." + extensao + "\"")
+                .body(corpo);
+    }
+
     @GetMapping("/alertas")
     public ResponseEntity<Page<AlertaPassagemDTO>> findAlerts(Pageable pageable) {
         return ResponseEntity.ok(service.findAlerts(pageable));
     }
 
+    /**
+     * Histórico de alertas paginado por cursor, do mais recente para o mais antigo.
+     * Ex: GET /api/monitoramento/alertas/cursor?tamanho=50&placa=ABC1D23
+     * Para a próxima página, repita a chamada com cursor={proximoCursor da resposta}.
+     * O total de registros só é calculado com incluirTotal=true.
+     */
+    @GetMapping("/alertas/cursor")
+    public ResponseEntity<?> findAlertsPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamanho,
+            @RequestParam(required = false) String placa,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+        try {
+            return ResponseEntity.ok(service.findAlertsPorCursor(cursor, tamanho, placa, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return requisicaoInvalida(e);
+        }
+    }
+
+    // 400 Bad Request com a mensagem do erro no corpo: {"message": "..."}
+    private static ResponseEntity<Map<String, String>> requisicaoInvalida(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("message", e.getMessage()));
+    }
+
 }
@@ -46,8 +46,8 @@ public class AlertaPassagemDTO {
         this.km = entity.getKm();
         this.sentido = entity.getSentido();
         this.timestampAlerta = entity.getTimestampAlerta();
-        // Aqui, ao chamar o getPlacaMonitorada(), o JPA carrega os dados
-        // enquanto a sessão ainda está aberta.
+        // As consultas de listagem já trazem a placa via fetch join; se a associação ainda for
+        // um proxy LAZY, o JPA a carrega aqui (uma consulta extra), enquanto a sessão está aberta.
         if (entity.getPlacaMonitorada() != null) {
             this.placaMonitorada = new PlacaMonitoradaDTO(entity.getPlacaMonitorada());
         }
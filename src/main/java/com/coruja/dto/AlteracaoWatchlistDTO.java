@@ -0,0 +1,21 @@
+package com.coruja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento de alteração da lista de placas monitoradas, publicado no radares_exchange
+ * (routing key watchlist.alterada) para que as demais réplicas atualizem o índice em memória.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracaoWatchlistDTO {
+    // Identificador da instância que fez a alteração; ela mesma ignora o próprio evento
+    private String origem;
+    private String placa;
+    private boolean ativa;
+    // Alteração em massa (importação): as réplicas recarregam o índice inteiro do banco
+    private boolean recarregar;
+}
@@ -0,0 +1,32 @@
+package com.coruja.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de alertas ordenada por (timestampAlerta, id) decrescente.
+ * Trafega como texto opaco (Base64 URL-safe de "timestamp|id").
+ */
+public record CursorAlerta(LocalDateTime timestampAlerta, Long id) {
+
+    public String codificar() {
+        String texto = timestampAlerta + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o cursor não tiver sido gerado por {@link #codificar()}.
+     */
+    public static CursorAlerta decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.lastIndexOf('|');
+            return new CursorAlerta(LocalDateTime.parse(texto.substring(0, separador)),
+                    Long.parseLong(texto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
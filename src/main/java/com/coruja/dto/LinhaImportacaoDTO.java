@@ -0,0 +1,25 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de uma linha da importação em lote de placas.
+ * {@code linha} é a posição do registro no arquivo enviado (a partir de 1, sem contar o cabeçalho do CSV).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LinhaImportacaoDTO {
+
+    public enum Resultado { INSERIDA, ATUALIZADA, ERRO }
+
+    private long linha;
+    private String placa;
+    private Resultado resultado;
+    // Motivo da falha, apenas quando resultado = ERRO
+    private String mensagem;
+}
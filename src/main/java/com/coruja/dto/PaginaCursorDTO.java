@@ -0,0 +1,24 @@
+package com.coruja.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor (keyset). Para buscar a próxima página,
+ * envie {@code proximoCursor} no parâmetro {@code cursor}; ele é nulo na última página.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaginaCursorDTO<T> {
+    private List<T> itens;
+    private String proximoCursor;
+    private boolean temMais;
+    // Só preenchido quando solicitado, pois exige um count(*) sobre a tabela inteira
+    private Long total;
+}
@@ -0,0 +1,26 @@
+package com.coruja.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Leitura de radar já interpretada a partir da mensagem delimitada por "|".
+ * Campos ausentes no layout da concessionária ficam como "N/A".
+ */
+@Getter
+@Builder
+@ToString
+public class RadarMensagem {
+    private final String concessionaria;
+    private final LocalDate data;
+    private final LocalTime hora;
+    private final String placa;
+    private final String praca;
+    private final String rodovia;
+    private final String km;
+    private final String sentido;
+}
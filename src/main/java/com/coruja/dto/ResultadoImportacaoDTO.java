@@ -0,0 +1,28 @@
+package com.coruja.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório da importação em lote de placas: totais e o resultado de cada linha.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadoImportacaoDTO {
+    private int inseridas;
+    private int atualizadas;
+    private int erros;
+    private List<LinhaImportacaoDTO> linhas = new ArrayList<>();
+
+    public void registrar(LinhaImportacaoDTO linha) {
+        linhas.add(linha);
+        switch (linha.getResultado()) {
+            case INSERIDA -> inseridas++;
+            case ATUALIZADA -> atualizadas++;
+            case ERRO -> erros++;
+        }
+    }
+}
@@ -22,8 +22,11 @@ import java.time.LocalTime;
 public class AlertaPassagem {
 
     //Esta entidade irá armazenar cada passagem de um veículo monitorado.
+    // Sequence com incremento 50 (otimizador "pooled" do Hibernate): os ids são reservados em blocos,
+    // o que permite agrupar os INSERTs em lotes do JDBC (IDENTITY obriga a inserir linha a linha).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alertas_passagens_seq")
+    @SequenceGenerator(name = "alertas_passagens_seq", sequenceName = "alertas_passagens_id_seq", allocationSize = 50)
     private Long id;
 
     // Dados da passagem em tempo real
@@ -0,0 +1,50 @@
+package com.coruja.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_eventos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoOutbox {
+
+    // Cada evento pendente de entrega, gravado na mesma transação do alerta que o originou.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_eventos_seq")
+    @SequenceGenerator(name = "outbox_eventos_seq", sequenceName = "outbox_eventos_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoOutbox tipo;
+
+    @Column(nullable = false, length = 100)
+    private String destino;
+
+    // Texto da mensagem do Telegram (e alerta.confirmado gravado antes do V9)
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    // Corpo já serializado do alerta.confirmado, publicado como está com o content-type abaixo
+    @Column(columnDefinition = "BYTEA")
+    private byte[] conteudo;
+
+    @Column(name = "tipo_conteudo", length = 50)
+    private String tipoConteudo;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    // Preenchidas pelo banco (DEFAULT now()), para que todas as comparações usem o mesmo relógio
+    @Column(name = "proxima_tentativa", insertable = false, updatable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "criado_em", insertable = false, updatable = false)
+    private LocalDateTime criadoEm;
+}
@@ -76,12 +76,12 @@ public class PlacaMonitorada {
     private LocalDateTime updatedAt;
 
     // Define o relacionamento reverso: Uma PlacaMonitorada pode ter muitos AlertasDePassagem.
-    // cascade = CascadeType.ALL: Diz ao JPA: "Qualquer operação (salvar, deletar) que eu fizer
-    //                                     nesta PlacaMonitorada, aplique também aos seus Alertas."
-    // orphanRemoval = true: Garante que se um alerta for removido da lista, ele será deletado do banco.
+    // Sem cascade/orphanRemoval: a exclusão dos alertas fica com o ON DELETE CASCADE do banco
+    // (fk_alertas_passagens_placa_monitorada). Com cascade no JPA, excluir uma placa carregava
+    // e apagava cada alerta individualmente.
     @Setter
     @Getter
-    @OneToMany(mappedBy = "placaMonitorada", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "placaMonitorada", fetch = FetchType.LAZY)
     @ToString.Exclude // Exclui este campo do toString() para evitar loops infinitos
     private List<AlertaPassagem> alertas = new ArrayList<>();
 
@@ -0,0 +1,8 @@
+package com.coruja.entities;
+
+public enum TipoEventoOutbox {
+    // Mensagem para o Telegram; destino = chat id
+    TELEGRAM,
+    // Evento publicado no radares_exchange; destino = routing key
+    ALERTA_CONFIRMADO
+}
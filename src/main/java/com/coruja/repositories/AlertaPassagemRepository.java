@@ -1,10 +1,26 @@
 package com.coruja.repositories;
 
 import com.coruja.entities.AlertaPassagem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AlertaPassagemRepository extends JpaRepository<AlertaPassagem, Long>, JpaSpecificationExecutor<AlertaPassagem> {
+
+    // Listagem paginada já com a placa monitorada (fetch join): uma única consulta por página, sem N+1
+    @EntityGraph(attributePaths = "placaMonitorada")
+    @Query(value = "SELECT a FROM AlertaPassagem a",
+            countQuery = "SELECT count(a) FROM AlertaPassagem a")
+    Page<AlertaPassagem> findAllComPlaca(Pageable pageable);
+
+    // Alertas mais recentes já com a placa monitorada carregada (usado para pré-carregar o buffer de últimos alertas)
+    @EntityGraph(attributePaths = "placaMonitorada")
+    List<AlertaPassagem> findByOrderByTimestampAlertaDescIdDesc(Pageable pageable);
 }
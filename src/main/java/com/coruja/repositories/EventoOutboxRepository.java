@@ -0,0 +1,53 @@
+package com.coruja.repositories;
+
+import com.coruja.entities.EventoOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    /**
+     * Reserva um lote de eventos prontos para envio, adiando a próxima tentativa deles por
+     * {@code reservaSegundos}. SKIP LOCKED permite que várias réplicas drenem a outbox sem disputa;
+     * se o processo cair no meio do envio, os eventos voltam a ficar disponíveis ao fim da reserva.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE outbox_eventos SET proxima_tentativa = now() + make_interval(secs => :reservaSegundos)
+            WHERE id IN (SELECT id FROM outbox_eventos
+                         WHERE proxima_tentativa <= now()
+                         ORDER BY id
+                         LIMIT :limite
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<EventoOutbox> reservarLote(@Param("limite") int limite, @Param("reservaSegundos") long reservaSegundos);
+
+    // Reagenda eventos cujo envio falhou
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_eventos
+            SET tentativas = tentativas + 1,
+                proxima_tentativa = now() + make_interval(secs => :esperaSegundos)
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int reagendar(@Param("ids") Collection<Long> ids, @Param("esperaSegundos") long esperaSegundos);
+
+    // Estende a reserva de eventos ainda em envio nesta instância
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_eventos SET proxima_tentativa = now() + make_interval(secs => :reservaSegundos)
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int renovarReserva(@Param("ids") Collection<Long> ids, @Param("reservaSegundos") long reservaSegundos);
+}
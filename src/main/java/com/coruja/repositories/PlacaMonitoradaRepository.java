@@ -2,8 +2,13 @@ package com.coruja.repositories;
 
 import com.coruja.entities.PlacaMonitorada;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +16,37 @@ public interface PlacaMonitoradaRepository extends JpaRepository<PlacaMonitorada
     // Método para verificar se uma placa ativa está sendo monitorada
     Optional<PlacaMonitorada> findByPlacaAndStatusAtivo(String placa, boolean statusAtivo);
 
+    // Versão em lote: uma única consulta (WHERE placa IN ...) para todas as placas detectadas no lote
+    List<PlacaMonitorada> findByPlacaInAndStatusAtivo(Collection<String> placas, boolean statusAtivo);
+
     // Método para verificar se uma placa já existe.
     Optional<PlacaMonitorada> findByPlaca(String placa);
+
+    @Query("SELECT p.placa FROM PlacaMonitorada p WHERE p.id = :id")
+    Optional<String> findPlacaById(@Param("id") Long id);
+
+    // DELETE direto, sem carregar a entidade: os alertas são apagados pelo ON DELETE CASCADE do banco
+    @Modifying
+    @Query("DELETE FROM PlacaMonitorada p WHERE p.id = :id")
+    int excluirPorId(@Param("id") Long id);
+
+    // Carrega apenas o texto das placas ativas, usado pelo índice em memória.
+    @Query("SELECT p.placa FROM PlacaMonitorada p WHERE p.statusAtivo = true")
+    List<String> findPlacasAtivas();
+
+    // Resumo das placas ativas para a reconciliação periódica do índice em memória de cada réplica.
+    // A soma dos primeiros 32 bits do md5 de cada placa ativa muda quando uma placa é trocada por outra;
+    // o índice calcula a mesma soma (IndicePlacasAtivas.somaVerificacao).
+    @Query(value = """
+            SELECT COUNT(*) AS "ativas",
+                   COALESCE(SUM(('x' || substr(md5(upper(placa)), 1, 8))::bit(32)::int), 0) AS "somaVerificacao"
+            FROM placas_monitoradas
+            WHERE status_ativo
+            """, nativeQuery = true)
+    VersaoWatchlist findVersaoWatchlist();
+
+    interface VersaoWatchlist {
+        Long getAtivas();
+        Long getSomaVerificacao();
+    }
 }
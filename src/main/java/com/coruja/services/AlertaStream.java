@@ -0,0 +1,123 @@
+package com.coruja.services;
+
+import com.coruja.dto.AlertaPassagemDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transmissão ao vivo (Server-Sent Events) dos alertas confirmados.
+ * Um único sink multicast distribui cada alerta para todos os assinantes; cada assinante tem seu
+ * próprio buffer limitado e, se não acompanhar o ritmo, perde os alertas mais antigos (drop-oldest)
+ * sem atrasar os demais.
+ * <p>
+ * Ao reconectar com Last-Event-ID, o assinante recebe primeiro os alertas transmitidos depois desse id que
+ * ainda estão no {@link UltimosAlertasBuffer}. Os ids não chegam em ordem (blocos da sequência e partições
+ * gravando em paralelo), então a posição vem da ordem de transmissão: o buffer é alimentado junto com o sink,
+ * sob o mesmo lock, e a retomada reenvia o que foi adicionado depois do alerta com esse id. O assinante se
+ * conecta ao sink antes de ler o buffer, para não perder o que for transmitido nesse intervalo, e os alertas
+ * ao vivo já reenviados são descartados.
+ */
+@Component
+public class AlertaStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertaStream.class);
+
+    private static final String NOME_EVENTO = "alerta";
+
+    private final Sinks.Many<AlertaPassagemDTO> sink = Sinks.many().multicast().directBestEffort();
+    private final UltimosAlertasBuffer ultimosAlertas;
+    private final int bufferPorAssinante;
+    private final Duration intervaloKeepAlive;
+
+    public AlertaStream(UltimosAlertasBuffer ultimosAlertas,
+                        @Value("${monitoramento.alertas.stream.buffer-por-assinante:256}") int bufferPorAssinante,
+                        @Value("${monitoramento.alertas.stream.keep-alive-segundos:15}") long keepAliveSegundos) {
+        this.ultimosAlertas = ultimosAlertas;
+        this.bufferPorAssinante = bufferPorAssinante;
+        this.intervaloKeepAlive = Duration.ofSeconds(keepAliveSegundos);
+    }
+
+    /**
+     * Adiciona ao buffer de últimos alertas e publica para os assinantes conectados os alertas
+     * recém-confirmados (em ordem cronológica).
+     */
+    public synchronized void publicar(Collection<AlertaPassagemDTO> alertas) {
+        ultimosAlertas.adicionar(alertas);
+        for (AlertaPassagemDTO alerta : alertas) {
+            Sinks.EmitResult resultado = sink.tryEmitNext(alerta);
+            if (resultado.isFailure() && resultado != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                logger.warn("Falha ao transmitir alerta {} aos assinantes: {}", alerta.getId(), resultado);
+            }
+        }
+    }
+
+    /**
+     * @param ultimoIdRecebido valor do cabeçalho Last-Event-ID, ou {@code null} em uma conexão nova.
+     */
+    public Flux<ServerSentEvent<AlertaPassagemDTO>> assinar(Long ultimoIdRecebido) {
+        Flux<AlertaPassagemDTO> alertas = Flux.defer(() -> {
+            if (ultimoIdRecebido == null) {
+                return sink.asFlux();
+            }
+            // Conecta ao sink antes de ler o buffer; o que chegar até a retomada terminar fica retido
+            ConnectableFlux<AlertaPassagemDTO> aoVivo = sink.asFlux().replay(bufferPorAssinante);
+            Disposable conexao = aoVivo.connect();
+            List<AlertaPassagemDTO> perdidos = perdidosDesde(ultimoIdRecebido);
+            Set<Long> reenviados = new HashSet<>();
+            perdidos.forEach(alerta -> reenviados.add(alerta.getId()));
+            return Flux.fromIterable(perdidos)
+                    .concatWith(aoVivo.filter(alerta -> !reenviados.contains(alerta.getId())))
+                    .doFinally(sinal -> conexao.dispose());
+        }).onBackpressureBuffer(bufferPorAssinante,
+                descartado -> logger.debug("Assinante lento: alerta {} descartado.", descartado.getId()),
+                BufferOverflowStrategy.DROP_OLDEST);
+
+        Flux<ServerSentEvent<AlertaPassagemDTO>> keepAlive = Flux.interval(intervaloKeepAlive)
+                .map(i -> ServerSentEvent.<AlertaPassagemDTO>builder().comment("keep-alive").build());
+
+        return Flux.merge(alertas.map(this::evento), keepAlive);
+    }
+
+    /**
+     * Alertas do buffer transmitidos depois do alerta com o id informado, em ordem de transmissão.
+     * Se esse alerta já saiu do buffer (ou foi transmitido por outra réplica), reenvia os de id maior.
+     */
+    private List<AlertaPassagemDTO> perdidosDesde(long ultimoIdRecebido) {
+        List<AlertaPassagemDTO> ultimos = ultimosAlertas.ultimos();
+        for (int i = 0; i < ultimos.size(); i++) {
+            if (Long.valueOf(ultimoIdRecebido).equals(ultimos.get(i).getId())) {
+                return ultimos.subList(0, i).reversed();
+            }
+        }
+        return ultimos.stream()
+                .filter(alerta -> alerta.getId() != null && alerta.getId() > ultimoIdRecebido)
+                .toList()
+                .reversed();
+    }
+
+    public int assinantes() {
+        return sink.currentSubscriberCount();
+    }
+
+    private ServerSentEvent<AlertaPassagemDTO> evento(AlertaPassagemDTO alerta) {
+        return ServerSentEvent.<AlertaPassagemDTO>builder()
+                .id(String.valueOf(alerta.getId()))
+                .event(NOME_EVENTO)
+                .data(alerta)
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.coruja.services;
+
+import com.coruja.config.RabbitMQConfig;
+import com.coruja.dto.AlertaPassagemDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializa o evento alerta.confirmado ({@link AlertaPassagemDTO}) no corpo da mensagem AMQP.
+ * <p>
+ * O DTO é escrito pelo gerador de streaming do Jackson direto em bytes, em um buffer reaproveitado por thread,
+ * sem passar por uma String intermediária.
+ * <p>
+ * O formato padrão não muda para os consumidores atuais: JSON na routing key {@code alerta.confirmado}, com
+ * content-type {@value #TEXTO} e encoding UTF-8, como o SimpleMessageConverter publicava (quem lê com ele
+ * continua recebendo String). Formatos binários são opcionais e só chegam a quem pediu:
+ * {@code monitoramento.publicacao.alerta.formatos-binarios} (ex: {@code cbor,smile}) publica, além do JSON,
+ * uma cópia em cada formato na routing key {@code alerta.confirmado.<formato>}:
+ * <ul>
+ *     <li>{@code cbor} ({@value #CBOR}) e {@code smile} ({@value #SMILE}): menores que o JSON. Exigem o módulo
+ *     jackson-dataformat correspondente no classpath (perfil Maven {@code binario}).</li>
+ * </ul>
+ * Como a publicação é obrigatória (mandatory), só habilite um formato depois que a fila do consumidor estiver
+ * ligada à routing key dele; sem fila, a mensagem é devolvida e o evento fica sendo reenviado pela outbox.
+ * <p>
+ * Adaptação deliberada: o tamanho do alerta.confirmado padrão não diminui. O ganho no caminho padrão é de alocação
+ * (sem String nem cópia extra por alerta); o corpo menor só existe para quem assina um formato binário. Não dá para
+ * negociar um único formato por mensagem: o broker entrega o mesmo corpo a todas as filas ligadas à routing key,
+ * e os consumidores atuais leem JSON em texto e não olham o content-type. Por isso cada formato habilitado é uma
+ * cópia a mais por alerta (mais tráfego no broker, limitado ao volume de alertas confirmados, que é pequeno perto
+ * das leituras de radar) e só existe enquanto algum consumidor pedir aquele formato.
+ * <p>
+ * Na leitura o formato vem do content-type da mensagem; mensagens sem content-type, em texto ou JSON são lidas como JSON.
+ * <p>
+ * Não é um {@code MessageConverter}: o {@link PublicadorAlertas} monta as mensagens com ele explicitamente. Um bean
+ * desse tipo viraria o conversor do RabbitTemplate autoconfigurado e recusaria as demais publicações
+ * (ex: {@link SincronizacaoWatchlist}), que continuam com o SimpleMessageConverter padrão.
+ */
+@Component
+public class ConversorAlertaConfirmado {
+
+    public static final String TEXTO = MessageProperties.CONTENT_TYPE_TEXT_PLAIN;
+    public static final String CBOR = "application/cbor";
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private static final String FABRICA_CBOR = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+    private static final String FABRICA_SMILE = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+
+    // Os alertas são serializados nas threads das partições; cada uma reaproveita o seu buffer
+    private static final ThreadLocal<ByteArrayBuilder> BUFFER = ThreadLocal.withInitial(() -> new ByteArrayBuilder(1024));
+
+    /**
+     * Um formato publicado: a routing key e o content-type da mensagem.
+     */
+    public record Formato(String routingKey, String tipoConteudo) {}
+
+    private final ObjectMapper objectMapper;
+    private final List<Formato> formatos;
+    private final Map<String, ObjectWriter> escritores = new HashMap<>();
+    private final Map<String, ObjectReader> leitores = new ConcurrentHashMap<>();
+
+    public ConversorAlertaConfirmado(ObjectMapper objectMapper,
+                                     @Value("${monitoramento.publicacao.alerta.formatos-binarios:}") List<String> formatosBinarios) {
+        this.objectMapper = objectMapper;
+        List<Formato> publicados = new ArrayList<>();
+        publicados.add(new Formato(RabbitMQConfig.ALERTAS_ROUTING_KEY, TEXTO));
+        for (String formato : formatosBinarios) {
+            String nome = formato.trim().toLowerCase(Locale.ROOT);
+            if (nome.isEmpty()) {
+                continue;
+            }
+            String tipo = switch (nome) {
+                case "cbor" -> CBOR;
+                case "smile" -> SMILE;
+                default -> throw new IllegalArgumentException(
+                        "Formato binário do alerta.confirmado inválido: " + formato + ". Aceitos: cbor, smile.");
+            };
+            if (!escritores.containsKey(tipo)) {
+                publicados.add(new Formato(RabbitMQConfig.ALERTAS_ROUTING_KEY + "." + nome, tipo));
+            }
+            escritores.put(tipo, mapperPara(tipo).writerFor(AlertaPassagemDTO.class));
+        }
+        escritores.put(TEXTO, objectMapper.writerFor(AlertaPassagemDTO.class));
+        this.formatos = List.copyOf(publicados);
+    }
+
+    /**
+     * Formatos em que cada alerta é publicado; o primeiro é sempre o JSON padrão.
+     */
+    public List<Formato> formatos() {
+        return formatos;
+    }
+
+    /**
+     * Serializa o alerta em JSON.
+     */
+    public byte[] serializar(AlertaPassagemDTO alerta) {
+        return serializar(alerta, TEXTO);
+    }
+
+    /**
+     * Serializa o alerta no formato de um dos {@link #formatos()}.
+     */
+    public byte[] serializar(AlertaPassagemDTO alerta, String tipoConteudo) {
+        ObjectWriter escritor = escritores.get(tipoConteudo);
+        if (escritor == null) {
+            throw new MessageConversionException("Formato do alerta.confirmado não habilitado: " + tipoConteudo);
+        }
+        ByteArrayBuilder buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            escritor.writeValue(buffer, alerta);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new MessageConversionException("Erro ao serializar o alerta da placa " + alerta.getPlaca(), e);
+        }
+    }
+
+    /**
+     * Monta a mensagem a partir de um corpo já serializado (ex: gravado na outbox).
+     */
+    public Message mensagem(byte[] corpo, String tipoConteudo) {
+        MessageProperties propriedades = new MessageProperties();
+        if (MessageProperties.CONTENT_TYPE_JSON.equals(tipoConteudo)) {
+            tipoConteudo = TEXTO; // eventos gravados na outbox com o content-type JSON de versões anteriores
+        }
+        propriedades.setContentType(tipoConteudo);
+        if (TEXTO.equals(tipoConteudo)) {
+            propriedades.setContentEncoding(StandardCharsets.UTF_8.name());
+        }
+        propriedades.setContentLength(corpo.length);
+        return new Message(corpo, propriedades);
+    }
+
+    /**
+     * Lê o alerta de uma mensagem publicada em qualquer um dos formatos.
+     */
+    public AlertaPassagemDTO ler(Message mensagem) {
+        String tipo = mensagem.getMessageProperties().getContentType();
+        try {
+            return leitorPara(tipo).readValue(mensagem.getBody());
+        } catch (IOException e) {
+            throw new MessageConversionException("Corpo do alerta.confirmado inválido (" + tipo + ")", e);
+        }
+    }
+
+    private ObjectReader leitorPara(String tipo) {
+        String base = tipo == null ? "" : tipo.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        String formato = CBOR.equals(base) || SMILE.equals(base) ? base : TEXTO;
+        return leitores.computeIfAbsent(formato, f -> mapperPara(f).readerFor(AlertaPassagemDTO.class));
+    }
+
+    // Mesmo ObjectMapper do Spring (módulos e configuração), trocando apenas a fábrica de geradores
+    private ObjectMapper mapperPara(String tipo) {
+        if (TEXTO.equals(tipo)) {
+            return objectMapper;
+        }
+        String classe = CBOR.equals(tipo) ? FABRICA_CBOR : FABRICA_SMILE;
+        try {
+            JsonFactory fabrica = (JsonFactory) Class.forName(classe).getDeclaredConstructor().newInstance();
+            return objectMapper.copyWith(fabrica);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Formato " + tipo + " indisponível: adicione o módulo jackson-dataformat ("
+                    + classe + ") ao classpath, ex: perfil Maven 'binario'.", e);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.coruja.services;
+
+import com.coruja.dto.LinhaImportacaoDTO;
+import com.coruja.dto.LinhaImportacaoDTO.Resultado;
+import com.coruja.dto.PlacaMonitoradaDTO;
+import com.coruja.dto.ResultadoImportacaoDTO;
+import com.coruja.util.LeitorCsv;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação e exportação em lote da lista de placas monitoradas.
+ * <p>
+ * A importação lê o arquivo (CSV ou NDJSON) registro a registro e grava em lotes com um único
+ * {@code INSERT ... ON CONFLICT (placa) DO UPDATE} por lote; cada lote é uma transação própria.
+ * Se um lote falhar, as linhas dele são regravadas uma a uma para que só as linhas com problema
+ * apareçam como ERRO no relatório. Em placas já cadastradas só são alterados os campos presentes no arquivo
+ * (colunas do cabeçalho do CSV, chaves do objeto no NDJSON); um campo presente e vazio é apagado.
+ * O índice em memória ({@link IndicePlacasAtivas}) é recarregado
+ * uma única vez, ao final, nesta e nas demais réplicas.
+ * <p>
+ * A exportação percorre a tabela com um cursor do banco (fetch size) e escreve direto na resposta,
+ * sem montar a lista em memória.
+ */
+@Service
+public class ImportacaoPlacasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoPlacasService.class);
+
+    public enum Formato { CSV, NDJSON }
+
+    private static final String[] CAMPOS = {
+            "placa", "marcaModelo", "cor", "motivo", "statusAtivo",
+            "observacao", "interessado", "telefone", "telegramChatId"
+    };
+
+    private static final String UPSERT_INICIO = """
+            INSERT INTO placas_monitoradas (placa, marca_modelo, cor, motivo, status_ativo, observacao,
+                                            interessado, telefone, telegram_chat_id, created_at, updated_at)
+            VALUES\s""";
+
+    private static final String UPSERT_VALORES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Coluna da tabela de cada campo que pode ser alterado pela importação (na ordem de CAMPOS)
+    private static final Map<String, String> COLUNAS = colunas();
+
+    private static final String UPSERT_CONFLITO = " ON CONFLICT (placa) DO UPDATE SET ";
+
+    // xmax = 0 identifica a linha recém-inserida; em um UPDATE o xmax recebe a transação atual
+    private static final String UPSERT_FIM = "updated_at = EXCLUDED.updated_at RETURNING placa, (xmax = 0) AS inserida";
+
+    private static final String SELECT_EXPORTACAO = """
+            SELECT id, placa, marca_modelo, cor, motivo, status_ativo, observacao, interessado,
+                   telefone, telegram_chat_id, created_at, updated_at
+            FROM placas_monitoradas
+            ORDER BY id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leituraTemplate;
+    private final IndicePlacasAtivas indicePlacas;
+    private final ObjectMapper objectMapper;
+
+    @Value("${monitoramento.importacao.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${monitoramento.exportacao.fetch-size:1000}")
+    private int fetchSize;
+
+    public ImportacaoPlacasService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   IndicePlacasAtivas indicePlacas,
+                                   ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // O driver do PostgreSQL só usa cursor (fetch size) com autocommit desligado, ou seja, dentro de transação
+        this.leituraTemplate = new TransactionTemplate(transactionManager);
+        this.leituraTemplate.setReadOnly(true);
+        this.indicePlacas = indicePlacas;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Importa as placas do arquivo e devolve o resultado de cada linha.
+     * Placas já cadastradas são atualizadas só nos campos presentes no arquivo. Sem statusAtivo
+     * (ausente ou vazio), uma placa nova entra como ativa e uma existente mantém a situação atual.
+     *
+     * @throws IOException se o corpo da requisição não puder ser lido.
+     */
+    public ResultadoImportacaoDTO importar(InputStream entrada, Formato formato, char separador) throws IOException {
+        ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        Lote lote = new Lote(resultado);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        // Planilhas exportadas no Windows costumam começar com o BOM do UTF-8
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        try {
+            if (formato == Formato.CSV) {
+                lerCsv(reader, separador, lote);
+            } else {
+                lerNdjson(reader, lote);
+            }
+            lote.gravar();
+        } finally {
+            indicePlacas.recarregarEmTodasAsInstancias();
+        }
+        logger.info("Importação de placas concluída: {} inseridas, {} atualizadas, {} com erro.",
+                resultado.getInseridas(), resultado.getAtualizadas(), resultado.getErros());
+        return resultado;
+    }
+
+    /**
+     * Escreve todas as placas monitoradas no destino, no formato pedido.
+     */
+    public void exportar(OutputStream destino, Formato formato, char separador) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+        RowCallbackHandler escritor;
+        SequenceWriter sequencia = null;
+        if (formato == Formato.CSV) {
+            String sep = String.valueOf(separador);
+            writer.write("id" + sep + String.join(sep, CAMPOS) + sep + "createdAt" + sep + "updatedAt\n");
+            escritor = rs -> {
+                PlacaMonitoradaDTO dto = lerLinha(rs);
+                escrever(() -> escreverCsv(writer, dto, separador));
+            };
+        } else {
+            SequenceWriter json = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+            escritor = rs -> {
+                PlacaMonitoradaDTO dto = lerLinha(rs);
+                escrever(() -> json.write(dto));
+            };
+            sequencia = json;
+        }
+        try {
+            leituraTemplate.executeWithoutResult(status -> jdbcTemplate.query(conexao -> {
+                var ps = conexao.prepareStatement(SELECT_EXPORTACAO);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, escritor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (sequencia != null) {
+            sequencia.flush();
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // ================================================================
+    // Leitura dos formatos
+    // ================================================================
+
+    private void lerCsv(BufferedReader reader, char separador, Lote lote) throws IOException {
+        LeitorCsv csv = new LeitorCsv(reader, separador);
+        List<String> cabecalho = csv.proximoRegistro();
+        if (cabecalho == null) {
+            return;
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(normalizarNomeColuna(cabecalho.get(i)), i);
+        }
+        if (!colunas.containsKey("placa")) {
+            throw new IllegalArgumentException("O cabeçalho do CSV precisa ter a coluna 'placa'.");
+        }
+
+        long numero = 0;
+        List<String> registro;
+        while ((registro = csv.proximoRegistro()) != null) {
+            numero++;
+            Map<String, String> valores = new HashMap<>();
+            for (String campo : CAMPOS) {
+                Integer indice = colunas.get(normalizarNomeColuna(campo));
+                if (indice != null && indice < registro.size()) {
+                    valores.put(campo, registro.get(indice));
+                }
+            }
+            lote.adicionar(numero, valores);
+        }
+    }
+
+    private void lerNdjson(BufferedReader reader, Lote lote) throws IOException {
+        long numero = 0;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            numero++;
+            JsonNode json;
+            try {
+                json = objectMapper.readTree(linha);
+            } catch (JsonProcessingException e) {
+                lote.erro(numero, null, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            }
+            Map<String, String> valores = new HashMap<>();
+            for (String campo : CAMPOS) {
+                JsonNode valor = json.get(campo);
+                if (valor != null) {
+                    valores.put(campo, valor.isNull() ? null : valor.asText());
+                }
+            }
+            lote.adicionar(numero, valores);
+        }
+    }
+
+    private static String normalizarNomeColuna(String nome) {
+        return nome.replace("_", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ================================================================
+    // Gravação em lotes
+    // ================================================================
+
+    private record Registro(long linha, PlacaMonitoradaDTO dados) {}
+
+    /**
+     * Acumula os registros válidos até o tamanho do lote. Uma placa repetida dentro do mesmo lote
+     * força a gravação antecipada, pois o ON CONFLICT não pode alterar a mesma linha duas vezes
+     * no mesmo comando (a última ocorrência no arquivo prevalece). Um registro com outros campos
+     * informados também, pois todos os registros de um comando atualizam as mesmas colunas.
+     */
+    private class Lote {
+        private final ResultadoImportacaoDTO resultado;
+        private final List<Registro> registros = new ArrayList<>();
+        private final Set<String> placas = new HashSet<>();
+        private Set<String> campos = Set.of();
+
+        Lote(ResultadoImportacaoDTO resultado) {
+            this.resultado = resultado;
+        }
+
+        void adicionar(long linha, Map<String, String> valores) {
+            PlacaMonitoradaDTO dados;
+            try {
+                dados = converter(valores);
+            } catch (IllegalArgumentException e) {
+                erro(linha, valores.get("placa"), e.getMessage());
+                return;
+            }
+            Set<String> informados = camposInformados(valores);
+            if (!informados.equals(campos)) {
+                gravar();
+                campos = informados;
+            }
+            if (!placas.add(dados.getPlaca())) {
+                gravar();
+                placas.add(dados.getPlaca());
+            }
+            registros.add(new Registro(linha, dados));
+            if (registros.size() >= tamanhoLote) {
+                gravar();
+            }
+        }
+
+        void erro(long linha, String placa, String mensagem) {
+            resultado.registrar(new LinhaImportacaoDTO(linha, placa, Resultado.ERRO, mensagem));
+        }
+
+        void gravar() {
+            if (registros.isEmpty()) {
+                return;
+            }
+            try {
+                registrarResultados(registros, upsert(registros, campos));
+            } catch (Exception e) {
+                logger.warn("Falha ao gravar lote de {} placas; gravando uma a uma. Causa: {}",
+                        registros.size(), e.getMessage());
+                for (Registro registro : registros) {
+                    try {
+                        registrarResultados(List.of(registro), upsert(List.of(registro), campos));
+                    } catch (Exception erroLinha) {
+                        erro(registro.linha(), registro.dados().getPlaca(), causaRaiz(erroLinha));
+                    }
+                }
+            }
+            registros.clear();
+            placas.clear();
+        }
+
+        private void registrarResultados(List<Registro> gravados, Map<String, Boolean> inseridas) {
+            for (Registro registro : gravados) {
+                String placa = registro.dados().getPlaca();
+                Resultado situacao = Boolean.TRUE.equals(inseridas.get(placa)) ? Resultado.INSERIDA : Resultado.ATUALIZADA;
+                resultado.registrar(new LinhaImportacaoDTO(registro.linha(), placa, situacao, null));
+            }
+        }
+    }
+
+    /**
+     * Grava os registros em um único comando e devolve, por placa, se ela foi inserida (true) ou atualizada.
+     * Nas placas já cadastradas só os campos informados são alterados.
+     */
+    private Map<String, Boolean> upsert(List<Registro> registros, Set<String> campos) {
+        StringBuilder sql = new StringBuilder(UPSERT_INICIO.length() + registros.size() * 40 + 300);
+        sql.append(UPSERT_INICIO);
+        List<Object> parametros = new ArrayList<>(registros.size() * 11);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < registros.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPSERT_VALORES);
+            PlacaMonitoradaDTO dados = registros.get(i).dados();
+            parametros.add(dados.getPlaca());
+            parametros.add(dados.getMarcaModelo());
+            parametros.add(dados.getCor());
+            parametros.add(dados.getMotivo());
+            // Sem statusAtivo a placa nova entra como ativa; a existente não tem a coluna alterada
+            parametros.add(!campos.contains("statusAtivo") || dados.isStatusAtivo());
+            parametros.add(dados.getObservacao());
+            parametros.add(dados.getInteressado());
+            parametros.add(dados.getTelefone());
+            parametros.add(dados.getTelegramChatId());
+            parametros.add(agora);
+            parametros.add(agora);
+        }
+        sql.append(UPSERT_CONFLITO);
+        COLUNAS.forEach((campo, coluna) -> {
+            if (campos.contains(campo)) {
+                sql.append(coluna).append(" = EXCLUDED.").append(coluna).append(", ");
+            }
+        });
+        sql.append(UPSERT_FIM);
+
+        Map<String, Boolean> inseridas = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(),
+                (RowCallbackHandler) rs -> inseridas.put(rs.getString("placa"), rs.getBoolean("inserida")),
+                parametros.toArray()));
+        return inseridas;
+    }
+
+    private static PlacaMonitoradaDTO converter(Map<String, String> valores) {
+        String placa = valores.get("placa");
+        if (placa == null || placa.isBlank()) {
+            throw new IllegalArgumentException("Placa não informada.");
+        }
+        placa = placa.toUpperCase().trim();
+        if (placa.length() > 7) {
+            throw new IllegalArgumentException("Placa com mais de 7 caracteres: " + placa);
+        }
+        PlacaMonitoradaDTO dados = new PlacaMonitoradaDTO();
+        dados.setPlaca(placa);
+        dados.setMarcaModelo(textoOuNulo(valores.get("marcaModelo")));
+        dados.setCor(textoOuNulo(valores.get("cor")));
+        dados.setMotivo(textoOuNulo(valores.get("motivo")));
+        dados.setStatusAtivo(converterStatus(valores.get("statusAtivo")));
+        dados.setObservacao(textoOuNulo(valores.get("observacao")));
+        dados.setInteressado(textoOuNulo(valores.get("interessado")));
+        dados.setTelefone(textoOuNulo(valores.get("telefone")));
+        dados.setTelegramChatId(textoOuNulo(valores.get("telegramChatId")));
+        return dados;
+    }
+
+    /**
+     * Campos presentes no registro, além da placa. statusAtivo vazio conta como não informado.
+     */
+    private static Set<String> camposInformados(Map<String, String> valores) {
+        Set<String> informados = new HashSet<>();
+        for (String campo : COLUNAS.keySet()) {
+            if (valores.containsKey(campo)) {
+                informados.add(campo);
+            }
+        }
+        String status = valores.get("statusAtivo");
+        if (status == null || status.isBlank()) {
+            informados.remove("statusAtivo");
+        }
+        return informados;
+    }
+
+    private static Map<String, String> colunas() {
+        Map<String, String> colunas = new LinkedHashMap<>();
+        colunas.put("marcaModelo", "marca_modelo");
+        colunas.put("cor", "cor");
+        colunas.put("motivo", "motivo");
+        colunas.put("statusAtivo", "status_ativo");
+        colunas.put("observacao", "observacao");
+        colunas.put("interessado", "interessado");
+        colunas.put("telefone", "telefone");
+        colunas.put("telegramChatId", "telegram_chat_id");
+        return Collections.unmodifiableMap(colunas);
+    }
+
+    private static boolean converterStatus(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return true;
+        }
+        return switch (valor.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "sim", "s", "ativo" -> true;
+            case "false", "0", "nao", "não", "n", "inativo" -> false;
+            default -> throw new IllegalArgumentException("Valor inválido para statusAtivo: " + valor);
+        };
+    }
+
+    private static String textoOuNulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static String causaRaiz(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa.getMessage();
+    }
+
+    // ================================================================
+    // Escrita da exportação
+    // ================================================================
+
+    private interface Escrita {
+        void executar() throws IOException;
+    }
+
+    private static void escrever(Escrita escrita) {
+        try {
+            escrita.executar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PlacaMonitoradaDTO lerLinha(ResultSet rs) throws SQLException {
+        PlacaMonitoradaDTO dto = new PlacaMonitoradaDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setPlaca(rs.getString("placa"));
+        dto.setMarcaModelo(rs.getString("marca_modelo"));
+        dto.setCor(rs.getString("cor"));
+        dto.setMotivo(rs.getString("motivo"));
+        dto.setStatusAtivo(rs.getBoolean("status_ativo"));
+        dto.setObservacao(rs.getString("observacao"));
+        dto.setInteressado(rs.getString("interessado"));
+        dto.setTelefone(rs.getString("telefone"));
+        dto.setTelegramChatId(rs.getString("telegram_chat_id"));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return dto;
+    }
+
+    private static void escreverCsv(Writer writer, PlacaMonitoradaDTO dto, char separador) throws IOException {
+        String[] valores = {
+                String.valueOf(dto.getId()), dto.getPlaca(), dto.getMarcaModelo(), dto.getCor(), dto.getMotivo(),
+                String.valueOf(dto.isStatusAtivo()), dto.getObservacao(), dto.getInteressado(), dto.getTelefone(),
+                dto.getTelegramChatId(),
+                dto.getCreatedAt() == null ? null : dto.getCreatedAt().toString(),
+                dto.getUpdatedAt() == null ? null : dto.getUpdatedAt().toString()
+        };
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(separador);
+            }
+            LeitorCsv.escreverCampo(writer, valores[i], separador);
+        }
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,272 @@
+package com.coruja.services;
+
+import com.coruja.dto.AlteracaoWatchlistDTO;
+import com.coruja.repositories.PlacaMonitoradaRepository;
+import com.coruja.util.LongHashSet;
+import com.coruja.util.PlacaCodec;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Índice em memória das placas com monitoramento ativo.
+ * Permite descartar as leituras de radar que não interessam sem consultar o banco;
+ * o banco só é acessado quando a placa realmente está na lista.
+ * <p>
+ * As placas são guardadas codificadas ({@link PlacaCodec}) em um {@link LongHashSet}, sem boxing.
+ * A consulta é lock-free: o índice é um {@link Estado} imutável, publicado de uma vez a cada alteração.
+ * Para não copiar o conjunto inteiro a cada placa alterada, as alterações entram em dois conjuntos
+ * pequenos (adicionadas e removidas) sobre a base; quando eles passam de {@value #LIMITE_ALTERACOES}
+ * placas, são incorporados a uma nova base (uma cópia completa a cada {@value #LIMITE_ALTERACOES} alterações).
+ * Placas fora do padrão de 7 caracteres alfanuméricos ficam em um conjunto auxiliar de Strings.
+ * <p>
+ * As alterações feitas nesta instância são anunciadas como {@link AlteracaoWatchlistDTO} (evento do Spring),
+ * que o {@link SincronizacaoWatchlist} repassa às demais réplicas.
+ */
+@Component
+public class IndicePlacasAtivas {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndicePlacasAtivas.class);
+
+    private final PlacaMonitoradaRepository placaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    static final int LIMITE_ALTERACOES = 1024;
+
+    private volatile Estado estado = new Estado(new LongHashSet(), new LongHashSet(), new LongHashSet());
+    private volatile Set<String> naoCodificaveis = Set.of();
+
+    // Alterações aplicadas enquanto uma recarga lê o banco; são reaplicadas sobre o resultado dela
+    private List<Alteracao> alteracoesDuranteRecarga;
+    private final Object recarga = new Object();
+
+    public IndicePlacasAtivas(PlacaMonitoradaRepository placaRepository, ApplicationEventPublisher eventPublisher) {
+        this.placaRepository = placaRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Carrega o índice antes de os listeners do RabbitMQ começarem a consumir.
+     * <p>
+     * A leitura do banco é feita fora do lock; as alterações confirmadas nesse meio tempo são registradas
+     * e reaplicadas sobre o resultado, para que a recarga não as desfaça com um retrato anterior a elas.
+     */
+    @PostConstruct
+    public void recarregar() {
+        synchronized (recarga) {
+            synchronized (this) {
+                alteracoesDuranteRecarga = new ArrayList<>();
+            }
+            List<String> ativas;
+            try {
+                ativas = placaRepository.findPlacasAtivas();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    alteracoesDuranteRecarga = null;
+                }
+                throw e;
+            }
+            LongHashSet novoIndice = new LongHashSet(ativas.size());
+            Set<String> novasNaoCodificaveis = new HashSet<>();
+            for (String placa : ativas) {
+                long codigo = PlacaCodec.codificar(placa);
+                if (codigo == PlacaCodec.INVALIDA) {
+                    novasNaoCodificaveis.add(placa);
+                } else {
+                    novoIndice.add(codigo);
+                }
+            }
+            synchronized (this) {
+                for (Alteracao alteracao : alteracoesDuranteRecarga) {
+                    long codigo = PlacaCodec.codificar(alteracao.placa());
+                    if (codigo == PlacaCodec.INVALIDA) {
+                        if (alteracao.ativa()) {
+                            novasNaoCodificaveis.add(alteracao.placa());
+                        } else {
+                            novasNaoCodificaveis.remove(alteracao.placa());
+                        }
+                    } else if (alteracao.ativa()) {
+                        novoIndice.add(codigo);
+                    } else {
+                        novoIndice.remove(codigo);
+                    }
+                }
+                alteracoesDuranteRecarga = null;
+                this.estado = new Estado(novoIndice, new LongHashSet(), new LongHashSet());
+                this.naoCodificaveis = Set.copyOf(novasNaoCodificaveis);
+            }
+            logger.info("Índice de placas monitoradas carregado com {} placas ativas.", ativas.size());
+        }
+    }
+
+    /**
+     * Verifica se a placa está na lista de monitoramento ativo.
+     */
+    public boolean contem(String placa) {
+        if (placa == null) {
+            return false;
+        }
+        long codigo = PlacaCodec.codificar(placa);
+        return codigo == PlacaCodec.INVALIDA ? naoCodificaveis.contains(placa) : estado.contem(codigo);
+    }
+
+    /**
+     * Consulta pelo código já calculado com {@link PlacaCodec}; não aloca memória.
+     */
+    public boolean contem(long codigoPlaca) {
+        return estado.contem(codigoPlaca);
+    }
+
+    /**
+     * Registra a situação atual de uma placa. Dentro de uma transação, a alteração
+     * só é aplicada após o commit, para não antecipar dados que ainda podem ser desfeitos.
+     */
+    public void atualizar(String placa, boolean ativa) {
+        aposCommit(() -> {
+            aplicar(placa, ativa);
+            eventPublisher.publishEvent(new AlteracaoWatchlistDTO(null, placa, ativa, false));
+        });
+    }
+
+    /**
+     * Remove a placa do índice (após o commit, se houver transação).
+     */
+    public void remover(String placa) {
+        atualizar(placa, false);
+    }
+
+    /**
+     * Recarrega o índice do banco e pede às demais réplicas que façam o mesmo.
+     * Usado após alterações em massa, no lugar de um evento por placa.
+     */
+    public void recarregarEmTodasAsInstancias() {
+        aposCommit(() -> {
+            recarregar();
+            eventPublisher.publishEvent(new AlteracaoWatchlistDTO(null, null, false, true));
+        });
+    }
+
+    /**
+     * Aplica uma alteração feita por outra réplica (já confirmada no banco dela), sem anunciá-la de novo.
+     */
+    public void aplicarAlteracaoRemota(String placa, boolean ativa) {
+        aplicar(placa, ativa);
+    }
+
+    public int tamanho() {
+        Estado atual = estado;
+        return atual.base.size() + atual.adicionadas.size() - atual.removidas.size() + naoCodificaveis.size();
+    }
+
+    /**
+     * Soma de verificação das placas do índice, calculada como a de {@code placas_monitoradas}
+     * ({@link PlacaMonitoradaRepository#findVersaoWatchlist()}): soma dos primeiros 32 bits (com sinal) do md5
+     * de cada placa, em maiúsculas. Percorre o índice inteiro; é usada só pela reconciliação periódica.
+     */
+    public long somaVerificacao() {
+        Estado atual = estado;
+        MessageDigest md5 = md5();
+        long[] soma = new long[1];
+        atual.base.forEach(codigo -> {
+            if (!atual.removidas.contains(codigo)) {
+                soma[0] += somaVerificacao(md5, PlacaCodec.decodificar(codigo));
+            }
+        });
+        atual.adicionadas.forEach(codigo -> soma[0] += somaVerificacao(md5, PlacaCodec.decodificar(codigo)));
+        for (String placa : naoCodificaveis) {
+            soma[0] += somaVerificacao(md5, placa.toUpperCase(Locale.ROOT));
+        }
+        return soma[0];
+    }
+
+    private static int somaVerificacao(MessageDigest md5, String placa) {
+        byte[] hash = md5.digest(placa.getBytes(StandardCharsets.UTF_8));
+        return (hash[0] & 0xFF) << 24 | (hash[1] & 0xFF) << 16 | (hash[2] & 0xFF) << 8 | (hash[3] & 0xFF);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 indisponível na JVM.", e);
+        }
+    }
+
+    private synchronized void aplicar(String placa, boolean ativa) {
+        if (alteracoesDuranteRecarga != null) {
+            alteracoesDuranteRecarga.add(new Alteracao(placa, ativa));
+        }
+        long codigo = PlacaCodec.codificar(placa);
+        if (codigo == PlacaCodec.INVALIDA) {
+            Set<String> copia = new HashSet<>(naoCodificaveis);
+            boolean alterou = ativa ? copia.add(placa) : copia.remove(placa);
+            if (alterou) {
+                naoCodificaveis = Set.copyOf(copia);
+            }
+            return;
+        }
+        Estado atual = estado;
+        if (ativa == atual.contem(codigo)) {
+            return;
+        }
+        LongHashSet adicionadas = atual.adicionadas.copia();
+        LongHashSet removidas = atual.removidas.copia();
+        if (ativa) {
+            if (!removidas.remove(codigo)) {
+                adicionadas.add(codigo);
+            }
+        } else if (!adicionadas.remove(codigo)) {
+            removidas.add(codigo);
+        }
+        if (adicionadas.size() + removidas.size() <= LIMITE_ALTERACOES) {
+            estado = new Estado(atual.base, adicionadas, removidas);
+            return;
+        }
+        LongHashSet base = atual.base.copia();
+        adicionadas.forEach(base::add);
+        removidas.forEach(base::remove);
+        estado = new Estado(base, new LongHashSet(), new LongHashSet());
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    /**
+     * Retrato imutável do índice: a base mais as alterações ainda não incorporadas a ela.
+     * Uma placa está em no máximo um dos conjuntos de alteração, e {@code removidas} só contém placas da base.
+     */
+    private record Estado(LongHashSet base, LongHashSet adicionadas, LongHashSet removidas) {
+        boolean contem(long codigo) {
+            if (adicionadas.contains(codigo)) {
+                return true;
+            }
+            return base.contains(codigo) && !removidas.contains(codigo);
+        }
+    }
+
+    private record Alteracao(String placa, boolean ativa) {
+    }
+}
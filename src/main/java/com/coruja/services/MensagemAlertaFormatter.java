@@ -0,0 +1,187 @@
+package com.coruja.services;
+
+import com.coruja.entities.AlertaPassagem;
+import com.coruja.entities.PlacaMonitorada;
+import com.coruja.util.TemplateMensagem;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Monta os textos do Telegram (modo HTML) para um alerta: a mensagem do grupo geral e a do interessado.
+ * <p>
+ * Os templates são compilados uma vez ({@link TemplateMensagem}) e podem ser trocados por configuração:
+ * <ul>
+ *     <li>{@code telegram.mensagem.grupo} e {@code telegram.mensagem.privado}: padrão para todas as concessionárias;</li>
+ *     <li>{@code telegram.mensagem.concessionaria.<nome>.grupo} / {@code .privado}: específicos de uma concessionária
+ *     (nome em minúsculas, ex: {@code telegram.mensagem.concessionaria.rondon.grupo}).</li>
+ * </ul>
+ * Marcadores: {@code {concessionaria} {data} {hora} {placa} {veiculo} {marcaModelo} {cor} {local} {rodovia} {km}
+ * {sentido} {praca} {motivo} {interessado}}; o template privado aceita também {@code {mensagemGrupo}}.
+ * Os valores do alerta são escapados para HTML uma vez e usados nas duas mensagens.
+ * <p>
+ * Todos os templates configurados, inclusive os por concessionária, são compilados no construtor:
+ * um marcador desconhecido ou uma chave diferente de {@code grupo}/{@code privado} impede a inicialização.
+ */
+@Component
+public class MensagemAlertaFormatter {
+
+    public record MensagensAlerta(String grupo, String privado) {}
+
+    private record Templates(TemplateMensagem grupo, TemplateMensagem privado) {}
+
+    private static final List<String> VARIAVEIS = List.of(
+            "concessionaria", "data", "hora", "placa", "veiculo", "marcaModelo", "cor",
+            "local", "rodovia", "km", "sentido", "praca", "motivo", "interessado");
+
+    private static final int CONCESSIONARIA = 0, DATA = 1, HORA = 2, PLACA = 3, VEICULO = 4, MARCA_MODELO = 5,
+            COR = 6, LOCAL = 7, RODOVIA = 8, KM = 9, SENTIDO = 10, PRACA = 11, MOTIVO = 12, INTERESSADO = 13;
+
+    private static final String MARCADOR_MENSAGEM_GRUPO = "{mensagemGrupo}";
+
+    static final String GRUPO_PADRAO = """
+            🚨 <b>Concessionária {concessionaria}</b> 🚨
+            🗓️ Data: {data}
+            ⏰ Horário: {hora}
+            🚨 Placa: <b>{placa}</b>\s
+            🚗 Marca/Modelo: {veiculo}\s
+            📍 Local: {local}
+
+            ⚠️ Motivo: {motivo}
+            👤 Interessado: {interessado}""";
+
+    static final String PRIVADO_PADRAO = "⚠️ <b>SEU VEÍCULO FOI DETECTADO!</b> ⚠️\n\n" + MARCADOR_MENSAGEM_GRUPO;
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // Os alertas são formatados nas threads das partições; cada uma reaproveita o seu buffer
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private static final String PREFIXO_CONCESSIONARIA = "telegram.mensagem.concessionaria";
+
+    private final Templates padrao;
+    private final Map<String, Templates> porConcessionaria;
+
+    public MensagemAlertaFormatter(Environment environment) {
+        String grupoPadrao = environment.getProperty("telegram.mensagem.grupo", GRUPO_PADRAO);
+        String privadoPadrao = environment.getProperty("telegram.mensagem.privado", PRIVADO_PADRAO);
+        this.padrao = compilar(grupoPadrao, privadoPadrao);
+
+        // Chaves no formato <nome>.grupo / <nome>.privado
+        Map<String, String> configurados = Binder.get(environment)
+                .bind(PREFIXO_CONCESSIONARIA, Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        Map<String, String[]> textos = new HashMap<>();
+        configurados.forEach((chave, texto) -> {
+            int ponto = chave.lastIndexOf('.');
+            String tipo = ponto < 0 ? "" : chave.substring(ponto + 1);
+            if (!tipo.equals("grupo") && !tipo.equals("privado")) {
+                throw new IllegalArgumentException("Template de mensagem inválido: " + PREFIXO_CONCESSIONARIA + "."
+                        + chave + ". Use " + PREFIXO_CONCESSIONARIA + ".<nome>.grupo ou .privado.");
+            }
+            String[] grupoEPrivado = textos.computeIfAbsent(
+                    chave.substring(0, ponto).trim().toLowerCase(Locale.ROOT), nome -> new String[2]);
+            grupoEPrivado[tipo.equals("grupo") ? 0 : 1] = texto;
+        });
+        Map<String, Templates> compilados = new HashMap<>();
+        textos.forEach((nome, grupoEPrivado) -> {
+            try {
+                compilados.put(nome, compilar(
+                        grupoEPrivado[0] != null ? grupoEPrivado[0] : grupoPadrao,
+                        grupoEPrivado[1] != null ? grupoEPrivado[1] : privadoPadrao));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Template de mensagem da concessionária " + nome + ": " + e.getMessage(), e);
+            }
+        });
+        this.porConcessionaria = Map.copyOf(compilados);
+    }
+
+    /**
+     * Formata as mensagens do alerta. A mensagem privada só é montada se {@code incluirPrivado} for verdadeiro.
+     */
+    public MensagensAlerta formatar(AlertaPassagem alerta, boolean incluirPrivado) {
+        PlacaMonitorada placa = alerta.getPlacaMonitorada();
+        StringBuilder buffer = BUFFER.get();
+
+        String[] valores = new String[VARIAVEIS.size()];
+        valores[CONCESSIONARIA] = alerta.getConcessionaria();
+        valores[DATA] = alerta.getData() == null ? null : FORMATO_DATA.format(alerta.getData());
+        valores[HORA] = alerta.getHora() == null ? null : FORMATO_HORA.format(alerta.getHora());
+        valores[PLACA] = placa.getPlaca();
+        valores[MARCA_MODELO] = placa.getMarcaModelo();
+        valores[COR] = placa.getCor();
+        valores[RODOVIA] = alerta.getRodovia();
+        valores[KM] = alerta.getKm();
+        valores[SENTIDO] = alerta.getSentido();
+        valores[PRACA] = alerta.getPraca();
+        valores[MOTIVO] = placa.getMotivo();
+        valores[INTERESSADO] = placa.getInteressado();
+
+        buffer.setLength(0);
+        juntar(buffer, ", ", null, placa.getMarcaModelo());
+        juntar(buffer, ", ", null, placa.getCor());
+        valores[VEICULO] = buffer.toString();
+
+        buffer.setLength(0);
+        juntar(buffer, " - ", null, alerta.getRodovia());
+        juntar(buffer, " - ", "km ", alerta.getKm());
+        juntar(buffer, " - ", "Sentido: ", alerta.getSentido());
+        juntar(buffer, " - ", null, alerta.getPraca());
+        valores[LOCAL] = buffer.toString();
+
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = TemplateMensagem.escaparHtml(valores[i]);
+        }
+
+        Templates templates = templatesDa(alerta.getConcessionaria());
+        buffer.setLength(0);
+        templates.grupo().renderizar(valores, buffer);
+        String grupo = buffer.toString();
+
+        String privado = null;
+        if (incluirPrivado) {
+            buffer.setLength(0);
+            templates.privado().renderizar(valores, buffer);
+            privado = buffer.toString();
+        }
+        return new MensagensAlerta(grupo, privado);
+    }
+
+    private Templates templatesDa(String concessionaria) {
+        if (porConcessionaria.isEmpty() || concessionaria == null) {
+            return padrao;
+        }
+        return porConcessionaria.getOrDefault(concessionaria.trim().toLowerCase(Locale.ROOT), padrao);
+    }
+
+    // O texto do grupo é incorporado ao template privado na compilação: renderizar o privado não repete trabalho
+    private static Templates compilar(String grupo, String privado) {
+        return new Templates(
+                TemplateMensagem.compilar(grupo, VARIAVEIS),
+                TemplateMensagem.compilar(privado.replace(MARCADOR_MENSAGEM_GRUPO, grupo), VARIAVEIS));
+    }
+
+    /**
+     * Acrescenta o valor (com prefixo opcional) se ele tiver informação útil.
+     */
+    private static void juntar(StringBuilder destino, String separador, String prefixo, String valor) {
+        if (valor == null || valor.isBlank() || "N/A".equalsIgnoreCase(valor)) {
+            return;
+        }
+        if (!destino.isEmpty()) {
+            destino.append(separador);
+        }
+        if (prefixo != null) {
+            destino.append(prefixo);
+        }
+        destino.append(valor);
+    }
+}
@@ -0,0 +1,211 @@
+package com.coruja.services;
+
+import com.coruja.config.ProcessamentoConfig;
+import com.coruja.util.JanelaDeduplicacao;
+import com.coruja.util.RadarMensagemParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do pipeline de alertas (Micrometer), expostas em /actuator/metrics.
+ * <p>
+ * Por concessionária (tag {@code concessionaria}): mensagens recebidas, falhas de interpretação,
+ * acertos e faltas na lista de placas e alertas gravados. Só as concessionárias de
+ * {@code monitoramento.metricas.concessionarias} têm medidores próprios, criados na inicialização; qualquer
+ * outro nome (inclusive lixo vindo da fila) entra como "OUTRA", o que limita a cardinalidade das tags.
+ * O nome é lido direto dos bytes da mensagem, sem espaços nas pontas e sem diferenciar maiúsculas,
+ * e comparado com os configurados sem criar String por mensagem.
+ * <p>
+ * Os timers têm histograma de percentis (p50/p99/p999 e buckets para o Prometheus).
+ * A consulta de placas e a gravação são feitas por lote, com alertas de várias concessionárias;
+ * por isso esses dois timers não têm a tag de concessionária.
+ */
+@Component
+public class MetricasMonitoramento {
+
+    static final String OUTRA = "OUTRA";
+
+    private final MeterRegistry registry;
+
+    private final Timer buscaPlacas;
+    private final Timer gravacaoOk;
+    private final Timer gravacaoErro;
+    private final Timer publicacaoOk;
+    private final Timer publicacaoErro;
+    private final Counter telegramLimitados;
+
+    private final byte[][] nomesConhecidos;
+    private final Concessionaria[] conhecidas;
+    private final Concessionaria outra;
+    private final Map<String, Timer> telegramEnvio = new ConcurrentHashMap<>();
+
+    public MetricasMonitoramento(MeterRegistry registry, JanelaDeduplicacao janelaDeduplicacao,
+                                 @Qualifier(ProcessamentoConfig.JANELA_REENTREGAS) JanelaDeduplicacao janelaReentregas,
+                                 @Value("${monitoramento.metricas.concessionarias:RONDON,CART,EIXO,ENTREVIAS}") List<String> concessionarias) {
+        this.registry = registry;
+        List<String> nomes = concessionarias.stream()
+                .map(nome -> nome.trim().toUpperCase(Locale.ROOT))
+                .filter(nome -> !nome.isEmpty() && !nome.equals(OUTRA))
+                .distinct()
+                .toList();
+        this.nomesConhecidos = new byte[nomes.size()][];
+        this.conhecidas = new Concessionaria[nomes.size()];
+        for (int i = 0; i < nomes.size(); i++) {
+            nomesConhecidos[i] = nomes.get(i).getBytes(StandardCharsets.UTF_8);
+            conhecidas[i] = new Concessionaria(nomes.get(i), registry);
+        }
+        this.outra = new Concessionaria(OUTRA, registry);
+        this.buscaPlacas = timer("monitoramento.placas.busca", "Consulta das placas ativas de um lote de leituras");
+        this.gravacaoOk = timer("monitoramento.alertas.gravacao", "Transação de gravação dos alertas e da outbox", "resultado", "ok");
+        this.gravacaoErro = timer("monitoramento.alertas.gravacao", "Transação de gravação dos alertas e da outbox", "resultado", "erro");
+        this.publicacaoOk = timer("monitoramento.alerta-confirmado.publicacao", "Publicação do alerta.confirmado no RabbitMQ", "resultado", "ok");
+        this.publicacaoErro = timer("monitoramento.alerta-confirmado.publicacao", "Publicação do alerta.confirmado no RabbitMQ", "resultado", "erro");
+        this.telegramLimitados = Counter.builder("telegram.envio.limitados")
+                .description("Respostas 429 (Too Many Requests) da API do Telegram")
+                .register(registry);
+        FunctionCounter.builder("monitoramento.radar.duplicadas", janelaDeduplicacao, JanelaDeduplicacao::suprimidas)
+                .description("Leituras suprimidas pela janela de deduplicação")
+                .register(registry);
+        FunctionCounter.builder("monitoramento.radar.reentregas", janelaReentregas, JanelaDeduplicacao::suprimidas)
+                .description("Leituras reentregues pelo broker suprimidas (mesma data e hora)")
+                .register(registry);
+    }
+
+    /**
+     * Medidores da concessionária da mensagem (primeiro campo), sem alocar.
+     */
+    public Concessionaria concessionaria(byte[] mensagem) {
+        int fim = 0;
+        while (fim < mensagem.length && mensagem[fim] != RadarMensagemParser.SEPARADOR) {
+            fim++;
+        }
+        int inicio = 0;
+        while (inicio < fim && mensagem[inicio] == ' ') {
+            inicio++;
+        }
+        while (fim > inicio && mensagem[fim - 1] == ' ') {
+            fim--;
+        }
+        for (int i = 0; i < nomesConhecidos.length; i++) {
+            if (igualIgnorandoCaixa(nomesConhecidos[i], mensagem, inicio, fim)) {
+                return conhecidas[i];
+            }
+        }
+        return outra;
+    }
+
+    public Concessionaria concessionaria(String nome) {
+        return concessionaria((nome == null ? "" : nome).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Timer buscaPlacas() {
+        return buscaPlacas;
+    }
+
+    public void gravacao(long inicioNanos, boolean sucesso) {
+        (sucesso ? gravacaoOk : gravacaoErro).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void publicacao(long inicioNanos, boolean sucesso) {
+        (sucesso ? publicacaoOk : publicacaoErro).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra uma chamada ao sendMessage do Telegram.
+     *
+     * @param status código HTTP da resposta, ou "erro" se não houve resposta.
+     */
+    public void envioTelegram(String tipoChat, String status, long inicioNanos) {
+        telegramEnvio.computeIfAbsent(tipoChat + '|' + status, chave ->
+                        timer("telegram.envio", "Chamadas ao sendMessage da API do Telegram", "chat", tipoChat, "status", status))
+                .record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+        if ("429".equals(status)) {
+            telegramLimitados.increment();
+        }
+    }
+
+    private Timer timer(String nome, String descricao, String... tags) {
+        return Timer.builder(nome)
+                .description(descricao)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private static boolean igualIgnorandoCaixa(byte[] nome, byte[] mensagem, int inicio, int fim) {
+        if (nome.length != fim - inicio) {
+            return false;
+        }
+        for (int i = 0; i < nome.length; i++) {
+            byte a = nome[i];
+            byte b = mensagem[inicio + i];
+            if (a != b && (b < 'a' || b > 'z' || a != b - ('a' - 'A'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Contadores de uma concessionária.
+     */
+    public static final class Concessionaria {
+        private final String nome;
+        private final Counter recebidas;
+        private final Counter falhas;
+        private final Counter acertos;
+        private final Counter faltas;
+        private final Counter alertas;
+
+        private Concessionaria(String nome, MeterRegistry registry) {
+            this.nome = nome;
+            this.recebidas = Counter.builder("monitoramento.radar.mensagens")
+                    .description("Mensagens de radar recebidas").tag("concessionaria", nome).register(registry);
+            this.falhas = Counter.builder("monitoramento.radar.falhas")
+                    .description("Mensagens de radar que não puderam ser interpretadas").tag("concessionaria", nome).register(registry);
+            this.acertos = Counter.builder("monitoramento.watchlist.consultas")
+                    .description("Consultas ao índice de placas").tags("concessionaria", nome, "resultado", "acerto").register(registry);
+            // Placa fora da lista (o caso comum), não uma falha: "erro" fica para as falhas reais
+            this.faltas = Counter.builder("monitoramento.watchlist.consultas")
+                    .description("Consultas ao índice de placas").tags("concessionaria", nome, "resultado", "falta").register(registry);
+            this.alertas = Counter.builder("monitoramento.alertas.gravados")
+                    .description("Alertas gravados").tag("concessionaria", nome).register(registry);
+        }
+
+        public String nome() {
+            return nome;
+        }
+
+        public void recebida() {
+            recebidas.increment();
+        }
+
+        public void falha() {
+            falhas.increment();
+        }
+
+        public void consulta(boolean acerto) {
+            (acerto ? acertos : faltas).increment();
+        }
+
+        public void alertaGravado() {
+            alertas.increment();
+        }
+    }
+}
@@ -1,35 +1,51 @@
 package com.coruja.services;
 
+import com.coruja.config.ProcessamentoConfig;
+import com.coruja.config.RabbitMQConfig;
 import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.dto.CursorAlerta;
+import com.coruja.dto.PaginaCursorDTO;
 import com.coruja.dto.PlacaMonitoradaDTO;
+import com.coruja.dto.RadarMensagem;
 import com.coruja.entities.AlertaPassagem;
+import com.coruja.entities.EventoOutbox;
 import com.coruja.entities.PlacaMonitorada;
+import com.coruja.entities.TipoEventoOutbox;
 import com.coruja.repositories.AlertaPassagemRepository;
+import com.coruja.repositories.EventoOutboxRepository;
 import com.coruja.repositories.PlacaMonitoradaRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.coruja.services.MensagemAlertaFormatter.MensagensAlerta;
+import com.coruja.util.ExecutorParticionado;
+import com.coruja.util.JanelaDeduplicacao;
+import com.coruja.util.PlacaCodec;
+import com.coruja.util.RadarMensagemParser;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -39,29 +55,55 @@ public class MonitoramentoService {
 
     private final PlacaMonitoradaRepository placaRepository;
     private final AlertaPassagemRepository alertaRepository;
+    private final IndicePlacasAtivas indicePlacas;
+    private final ExecutorParticionado alertaExecutor;
+    private final EventoOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UltimosAlertasBuffer ultimosAlertas;
+    private final AlertaStream alertaStream;
+    private final MensagemAlertaFormatter mensagemFormatter;
+    private final JanelaDeduplicacao janelaDeduplicacao;
+    private final JanelaDeduplicacao janelaReentregas;
+    private final MetricasMonitoramento metricas;
+    private final ConversorAlertaConfirmado conversorAlerta;
 
     // Serviço de Notificação
     private final TelegramService telegramService;
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
-
     public static final String ANSI_RED = "\u001B[31m";
     public static final String ANSI_RESET = "\u001B[0m";
 
-    private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int TAMANHO_MAXIMO_PAGINA_CURSOR = 500;
 
     @Autowired
     public MonitoramentoService(PlacaMonitoradaRepository placaRepository,
                                 TelegramService telegramService,
                                 AlertaPassagemRepository alertaPassagemRepository,
-                                RabbitTemplate rabbitTemplate,
-                                ObjectMapper objectMapper) {
+                                IndicePlacasAtivas indicePlacas,
+                                ExecutorParticionado alertaExecutor,
+                                EventoOutboxRepository outboxRepository,
+                                PlatformTransactionManager transactionManager,
+                                UltimosAlertasBuffer ultimosAlertas,
+                                AlertaStream alertaStream,
+                                MensagemAlertaFormatter mensagemFormatter,
+                                JanelaDeduplicacao janelaDeduplicacao,
+                                @Qualifier(ProcessamentoConfig.JANELA_REENTREGAS) JanelaDeduplicacao janelaReentregas,
+                                MetricasMonitoramento metricas,
+                                ConversorAlertaConfirmado conversorAlerta) {
         this.placaRepository = placaRepository;
         this.telegramService = telegramService;
         this.alertaRepository = alertaPassagemRepository;
-        this.rabbitTemplate = rabbitTemplate;
-        this.objectMapper = objectMapper;
+        this.indicePlacas = indicePlacas;
+        this.alertaExecutor = alertaExecutor;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ultimosAlertas = ultimosAlertas;
+        this.alertaStream = alertaStream;
+        this.mensagemFormatter = mensagemFormatter;
+        this.janelaDeduplicacao = janelaDeduplicacao;
+        this.janelaReentregas = janelaReentregas;
+        this.metricas = metricas;
+        this.conversorAlerta = conversorAlerta;
     }
 
     /**
@@ -69,52 +111,216 @@ public class MonitoramentoService {
      * salva o alerta e envia a notificação para o Telegram.
      * Notifica o Grupo Geral
      * Notifica Usuário (se cadastrado)
+     * <p>
+     * As mensagens chegam em lote (ver {@link RabbitMQConfig#radarBatchContainerFactory}) e o lote é
+     * confirmado de uma vez. A placa é localizada e codificada direto nos bytes; só as mensagens com
+     * placa monitorada são interpretadas, e as placas delas são buscadas em uma única consulta.
+     * Não há transação envolvendo o lote de mensagens: os alertas de cada partição são gravados em uma
+     * transação própria (ver {@link #processarAlertas}) e, se ela falhar, um a um, para que uma falha isolada
+     * não desfaça (e reenfileire) o lote inteiro.
+     * <p>
+     * Os alertas são distribuídos nas partições do {@link ExecutorParticionado} pela placa, em paralelo,
+     * mantendo a ordem por placa. O lote só é confirmado depois que todos os alertas dele terminam.
      */
-    @RabbitListener(queues = "monitoramento_radares_queue")
-    public void onRadarMessage(String message) {
-        logger.debug("Mensagem de radar recebida para monitoramento: {}", message);
+    @RabbitListener(queues = RabbitMQConfig.MONITORAMENTO_QUEUE_NAME,
+            containerFactory = RabbitMQConfig.RADAR_BATCH_CONTAINER_FACTORY)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onRadarBatch(List<Message> mensagens) {
+        logger.debug("Lote de {} mensagens de radar recebido para monitoramento.", mensagens.size());
+
+        List<RadarMensagem> leituras = new ArrayList<>();
+        for (Message mensagem : mensagens) {
+            RadarMensagem leitura = lerSeMonitorada(mensagem.getBody());
+            if (leitura != null) {
+                leituras.add(leitura);
+            }
+        }
+        if (leituras.isEmpty()) {
+            return;
+        }
 
-        try {
-            String[] parts = message.split("\\|");
-            if (parts.length < 4) {
-                logger.warn("Mensagem de radar com formato muito curto: {}", message);
-                return;
+        // Busca as placas APENAS se estiverem ativas, em uma única consulta
+        Set<String> placasDetectadas = new HashSet<>();
+        leituras.forEach(leitura -> placasDetectadas.add(leitura.getPlaca()));
+        Map<String, PlacaMonitorada> placasAtivas = new HashMap<>();
+        metricas.buscaPlacas().record(() -> placaRepository.findByPlacaInAndStatusAtivo(placasDetectadas, true))
+                .forEach(placa -> placasAtivas.put(placa.getPlaca(), placa));
+
+        // Agrupa os alertas por partição (mantendo a ordem de chegada) para gravar cada grupo em lote
+        Map<Integer, List<AlertaPassagem>> alertasPorParticao = new HashMap<>();
+        Map<Integer, List<ChavesLeitura>> chavesPorParticao = new HashMap<>();
+        for (RadarMensagem leitura : leituras) {
+            PlacaMonitorada placaMonitorada = placasAtivas.get(leitura.getPlaca());
+            ChavesLeitura chaves = placaMonitorada == null ? null : registrarSeNova(leitura);
+            if (chaves != null) {
+                int particao = alertaExecutor.particao(leitura.getPlaca());
+                alertasPorParticao.computeIfAbsent(particao, p -> new ArrayList<>())
+                        .add(criarAlertaDaMensagem(leitura, placaMonitorada));
+                chavesPorParticao.computeIfAbsent(particao, p -> new ArrayList<>()).add(chaves);
             }
-            String placaDetectada = parts[3];
+        }
 
-            // Busca a placa APENAS se estiver ativa
-            placaRepository.findByPlacaAndStatusAtivo(placaDetectada, true)
-                    .ifPresent(placaMonitorada -> processarAlerta(message, placaMonitorada));
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>();
+        Set<Integer> agendadas = new HashSet<>();
+        try {
+            alertasPorParticao.forEach((particao, alertas) -> {
+                tarefas.add(alertaExecutor.executarNaParticao(particao,
+                        () -> processarAlertas(alertas, chavesPorParticao.get(particao))));
+                agendadas.add(particao);
+            });
+        } catch (RuntimeException e) {
+            // Partição cheia só bloqueia; a recusa vem do executor encerrado ou da thread interrompida esperando vaga.
+            // O lote volta para a fila, e as leituras não agendadas não podem ser suprimidas na reentrega
+            chavesPorParticao.forEach((particao, chaves) -> {
+                if (!agendadas.contains(particao)) {
+                    chaves.forEach(this::esquecer);
+                }
+            });
+            throw e;
+        }
+        CompletableFuture.allOf(tarefas.toArray(CompletableFuture[]::new)).join();
+    }
 
-        } catch (Exception e) {
-            logger.error("Erro inesperado ao processar mensagem do RabbitMQ: {}", message, e);
+    // Chaves de uma leitura nas janelas de deduplicação, para retirá-las se o alerta não for gravado
+    private record ChavesLeitura(long local, long exata) {}
+
+    /**
+     * Verifica nas janelas de deduplicação se a leitura é nova e, se for, registra as suas chaves.
+     * A mesma passagem lida por várias câmeras da praça gera um único alerta ({@code janela-segundos}).
+     * A mesma leitura reentregue pelo broker (mesma data e hora) é reconhecida por mais tempo
+     * ({@code reentrega-segundos}), mesmo depois que a janela do local expirou.
+     * O local é a praça ou, quando a concessionária não informa praça, o km.
+     *
+     * @return as chaves registradas, ou {@code null} se a leitura é duplicada.
+     */
+    private ChavesLeitura registrarSeNova(RadarMensagem leitura) {
+        String local = "N/A".equals(leitura.getPraca()) ? leitura.getKm() : leitura.getPraca();
+        long chaveLocal = JanelaDeduplicacao.chave(leitura.getPlaca(), leitura.getConcessionaria(), local, leitura.getSentido());
+        long chaveExata = JanelaDeduplicacao.chave(leitura.getPlaca(), leitura.getConcessionaria(), local, leitura.getSentido(),
+                String.valueOf(leitura.getData()), String.valueOf(leitura.getHora()));
+        if (!janelaReentregas.registrar(chaveExata)) {
+            logger.debug("Leitura da placa {} em {} ({}) reentregue; suprimida.",
+                    leitura.getPlaca(), leitura.getConcessionaria(), local);
+            return null;
+        }
+        if (janelaDeduplicacao.registrar(chaveLocal)) {
+            return new ChavesLeitura(chaveLocal, chaveExata);
         }
+        logger.debug("Leitura duplicada da placa {} em {} ({}) suprimida. Total suprimido: {}",
+                leitura.getPlaca(), leitura.getConcessionaria(), local, janelaDeduplicacao.suprimidas());
+        return null;
+    }
+
+    // O alerta não foi gravado: a próxima leitura igual não pode ser suprimida
+    private void esquecer(ChavesLeitura chaves) {
+        janelaDeduplicacao.remover(chaves.local());
+        janelaReentregas.remover(chaves.exata());
     }
 
-    private void processarAlerta(String message, PlacaMonitorada placaMonitorada) {
-        // 1. Salvar Alerta
-        AlertaPassagem alertaSalvo = alertaRepository.save(criarAlertaDaMensagem(message, placaMonitorada));
+    /**
+     * Devolve a leitura interpretada se a placa estiver sendo monitorada, ou {@code null} caso contrário.
+     */
+    private RadarMensagem lerSeMonitorada(byte[] corpo) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Mensagem de radar recebida para monitoramento: {}", new String(corpo, StandardCharsets.UTF_8));
+        }
 
-        // 2. Formatar Texto
-        String textoNotificacao = formatTelegramMessage(alertaSalvo);
+        MetricasMonitoramento.Concessionaria concessionaria = metricas.concessionaria(corpo);
+        concessionaria.recebida();
+        try {
+            long codigoPlaca = RadarMensagemParser.codigoDaPlaca(corpo);
+            boolean monitorada = codigoPlaca != PlacaCodec.INVALIDA
+                    ? indicePlacas.contem(codigoPlaca)
+                    : indicePlacas.contem(RadarMensagemParser.placa(corpo));
+            concessionaria.consulta(monitorada);
+
+            // Descarta em memória as placas que não estão sendo monitoradas (a grande maioria)
+            return monitorada ? RadarMensagemParser.interpretar(corpo) : null;
+        } catch (Exception e) {
+            concessionaria.falha();
+            logger.error("Erro inesperado ao processar mensagem do RabbitMQ: {}",
+                    new String(corpo, StandardCharsets.UTF_8), e);
+            return null;
+        }
+    }
 
-        // 3. Notificar Grupo Geral (Sempre envia)
-        telegramService.sendToGeneralChannel(textoNotificacao);
+    /**
+     * Grava os alertas de uma partição em uma única transação, com INSERTs em lote do JDBC
+     * (ids pré-alocados pela sequence, ver {@link AlertaPassagem}). Se o lote falhar,
+     * grava um a um para que um alerta problemático não impeça os demais.
+     */
+    private void processarAlertas(List<AlertaPassagem> alertas, List<ChavesLeitura> chaves) {
+        long inicio = System.nanoTime();
+        try {
+            List<AlertaPassagemDTO> gravados = transactionTemplate.execute(status -> gravarComEventos(alertas));
+            metricas.gravacao(inicio, true);
+            aposGravar(gravados);
+        } catch (Exception e) {
+            metricas.gravacao(inicio, false);
+            logger.warn("Falha ao gravar lote de {} alertas; gravando individualmente.", alertas.size(), e);
+            for (int i = 0; i < alertas.size(); i++) {
+                AlertaPassagem alerta = alertas.get(i);
+                long inicioIndividual = System.nanoTime();
+                try {
+                    alerta.setId(null);
+                    List<AlertaPassagemDTO> gravados = transactionTemplate.execute(status -> gravarComEventos(List.of(alerta)));
+                    metricas.gravacao(inicioIndividual, true);
+                    aposGravar(gravados);
+                } catch (Exception erro) {
+                    metricas.gravacao(inicioIndividual, false);
+                    esquecer(chaves.get(i));
+                    logger.error("Erro inesperado ao gravar alerta da placa {}.", alerta.getPlaca(), erro);
+                }
+            }
+        }
+    }
 
-        // 4. Notificar Usuário Específico (Se configurado)
-        notificarUsuarioEspecifico(placaMonitorada, textoNotificacao);
+    /**
+     * Grava os alertas e, na mesma transação, os eventos de outbox que os notificam
+     * (Telegram do grupo, Telegram do interessado e alerta.confirmado). A entrega é feita depois
+     * pelo {@link OutboxRelay}: nenhuma chamada de rede acontece dentro da transação, nada é enviado
+     * se ela for desfeita e nada se perde se o processo cair logo após o commit.
+     *
+     * @return os alertas gravados, já convertidos para DTO.
+     */
+    private List<AlertaPassagemDTO> gravarComEventos(List<AlertaPassagem> alertas) {
+        List<AlertaPassagem> salvos = alertaRepository.saveAll(alertas);
+
+        List<AlertaPassagemDTO> gravados = new ArrayList<>(salvos.size());
+        List<EventoOutbox> eventos = new ArrayList<>();
+        for (AlertaPassagem alertaSalvo : salvos) {
+            // 2. Formatar Texto (grupo e, se houver chat privado, a versão do interessado)
+            PlacaMonitorada placa = alertaSalvo.getPlacaMonitorada();
+            String chatIdPessoal = placa.getTelegramChatId();
+            MensagensAlerta mensagens = mensagemFormatter.formatar(alertaSalvo, StringUtils.hasText(chatIdPessoal));
+
+            // 3. Notificar Grupo Geral (Sempre envia)
+            eventos.add(eventoTelegram(telegramService.getDefaultChatId(), mensagens.grupo()));
+
+            // 4. Notificar Usuário Específico (Se configurado)
+            notificarUsuarioEspecifico(placa, mensagens.privado(), eventos);
+
+            // 5. Publicar evento de confirmação
+            AlertaPassagemDTO alertaDTO = new AlertaPassagemDTO(alertaSalvo);
+            publicarAlertaConfirmado(alertaDTO, eventos);
+            gravados.add(alertaDTO);
+        }
+        outboxRepository.saveAll(eventos);
+        return gravados;
+    }
 
-        // 5. Publicar evento de confirmação
-        publicarAlertaConfirmado(alertaSalvo);
+    // Depois do commit: atualiza o buffer de últimos alertas e transmite aos dashboards conectados
+    private void aposGravar(List<AlertaPassagemDTO> gravados) {
+        gravados.forEach(alerta -> metricas.concessionaria(alerta.getConcessionaria()).alertaGravado());
+        alertaStream.publicar(gravados);
     }
 
-    private void notificarUsuarioEspecifico(PlacaMonitorada placa, String textoBase) {
+    private void notificarUsuarioEspecifico(PlacaMonitorada placa, String textoPessoal, List<EventoOutbox> eventos) {
         String chatIdPessoal = placa.getTelegramChatId();
 
         if (StringUtils.hasText(chatIdPessoal)) {
-            String textoPessoal = "⚠️ <b>SEU VEÍCULO FOI DETECTADO!</b> ⚠️\n\n" + textoBase;
-            telegramService.enviarMensagem(textoPessoal, chatIdPessoal);
-            logger.info("Notificação privada enviada para interessado: {} (ChatId: {})",
+            eventos.add(eventoTelegram(chatIdPessoal.trim(), textoPessoal));
+            logger.info("Notificação privada registrada para interessado: {} (ChatId: {})",
                     placa.getInteressado(), chatIdPessoal);
         } else {
             logger.info("Nenhum Chat ID privado configurado para a placa {}. Apenas grupo notificado.",
@@ -122,97 +328,42 @@ public class MonitoramentoService {
         }
     }
 
-    // Método auxiliar para publicar no RabbitMQ
-    private void publicarAlertaConfirmado(AlertaPassagem alerta) {
+    // Método auxiliar para registrar a publicação no RabbitMQ (entregue pelo OutboxRelay)
+    private void publicarAlertaConfirmado(AlertaPassagemDTO alertaDTO, List<EventoOutbox> eventos) {
         try {
-            // Cria um DTO a partir da entidade JÁ SALVA
-            AlertaPassagemDTO alertaDTO = new AlertaPassagemDTO(alerta);
-            // Converte o DTO para uma string JSON
-            String alertaJson = objectMapper.writeValueAsString(alertaDTO);
-            // Publica na exchange com uma routing key específica para alertas
-            rabbitTemplate.convertAndSend("radares_exchange", "alerta.confirmado", alertaJson);
-            logger.info("Alerta da placa {} processado e notificado.", alerta.getPlaca());
-        } catch (JsonProcessingException e) {
+            // Serializa o DTO direto em bytes: JSON em alerta.confirmado e, se habilitados, os formatos binários
+            // nas routing keys próprias (alerta.confirmado.<formato>)
+            for (ConversorAlertaConfirmado.Formato formato : conversorAlerta.formatos()) {
+                eventos.add(EventoOutbox.builder()
+                        .tipo(TipoEventoOutbox.ALERTA_CONFIRMADO)
+                        .destino(formato.routingKey())
+                        .conteudo(conversorAlerta.serializar(alertaDTO, formato.tipoConteudo()))
+                        .tipoConteudo(formato.tipoConteudo())
+                        .build());
+            }
+            logger.info("Alerta da placa {} processado e notificado.", alertaDTO.getPlaca());
+        } catch (MessageConversionException e) {
             logger.error("Erro ao serializar alerta", e);
         }
     }
 
-    private AlertaPassagem criarAlertaDaMensagem(String message, PlacaMonitorada placaMonitorada) {
-        String[] parts = message.split("\\|");
-        String concessionaria = parts[0].toUpperCase();
-
-        LocalDate data = LocalDate.parse(parts[1]);
-        LocalTime hora = LocalTime.parse(parts[2]);
-        String praca = "N/A", rodovia = "N/A", km = "N/A", sentido = "N/A";
-
-        switch (concessionaria) {
-            case "RONDON":
-                if (parts.length >= 7) {
-                    rodovia = parts[4];
-                    km = parts[5];
-                    sentido = parts[6];
-                }
-                break;
-            default: // CART, EIXO, ENTREVIAS e outros com 8 partes
-                if (parts.length >= 8) {
-                    praca = parts[4];
-                    rodovia = parts[5];
-                    km = parts[6];
-                    sentido = parts[7];
-                }
-        }
+    private EventoOutbox eventoTelegram(String chatId, String texto) {
+        return EventoOutbox.builder()
+                .tipo(TipoEventoOutbox.TELEGRAM)
+                .destino(chatId)
+                .payload(texto)
+                .build();
+    }
 
+    private AlertaPassagem criarAlertaDaMensagem(RadarMensagem leitura, PlacaMonitorada placaMonitorada) {
         return AlertaPassagem.builder()
-                .concessionaria(concessionaria)
-                .data(data).hora(hora).placa(placaMonitorada.getPlaca())
-                .praca(praca).rodovia(rodovia).km(km).sentido(sentido)
+                .concessionaria(leitura.getConcessionaria())
+                .data(leitura.getData()).hora(leitura.getHora()).placa(placaMonitorada.getPlaca())
+                .praca(leitura.getPraca()).rodovia(leitura.getRodovia()).km(leitura.getKm()).sentido(leitura.getSentido())
                 .placaMonitorada(placaMonitorada)
                 .build();
     }
 
-    /**
-     * NOVO: Método auxiliar privado para formatar a mensagem do Telegram.
-     */
-    private String formatTelegramMessage(AlertaPassagem alerta) {
-        PlacaMonitorada placaMonitorada = alerta.getPlacaMonitorada();
-        String dataFormatada = alerta.getData().format(dateFormatter);
-        String horaFormatada = alerta.getHora().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-
-        List<String> placaInfoParts = new ArrayList<>();
-        if (isValid(placaMonitorada.getMarcaModelo())) placaInfoParts.add(placaMonitorada.getMarcaModelo());
-        if (isValid(placaMonitorada.getCor())) placaInfoParts.add(placaMonitorada.getCor());
-        String placaInfoAdicional = String.join(", ", placaInfoParts);
-
-        List<String> localizacaoParts = new ArrayList<>();
-        if (isValid(alerta.getRodovia())) localizacaoParts.add(alerta.getRodovia());
-        if (isValid(alerta.getKm())) localizacaoParts.add("km " + alerta.getKm());
-        if (isValid(alerta.getSentido())) localizacaoParts.add("Sentido: " + alerta.getSentido());
-        if (isValid(alerta.getPraca())) localizacaoParts.add(alerta.getPraca());
-        String localizacaoCompleta = String.join(" - ", localizacaoParts);
-
-        return String.format(
-                "🚨 <b>Concessionária %s</b> 🚨\n" +
-                        "🗓️ Data: %s\n" +
-                        "⏰ Horário: %s\n" +
-                        "🚨 Placa: <b>%s</b> \n" +
-                        "🚗 Marca/Modelo: %s \n" +
-                        "📍 Local: %s\n\n" +
-                        "⚠️ Motivo: %s\n" +
-                        "👤 Interessado: %s",
-                alerta.getConcessionaria(), dataFormatada, horaFormatada,
-                placaMonitorada.getPlaca(), placaInfoAdicional,
-                localizacaoCompleta,
-                placaMonitorada.getMotivo(), placaMonitorada.getInteressado()
-        );
-    }
-
-    /**
-     * Verifica se uma string contém uma informação útil.
-     */
-    private boolean isValid(String value) {
-        return value != null && !value.isBlank() && !"N/A".equalsIgnoreCase(value);
-    }
-
     /**
      * Lista todas as placas monitoradas de forma paginada.
      */
@@ -263,6 +414,7 @@ public class MonitoramentoService {
 
         // 4. AGORA o log mostrará o ID correto.
         logger.info("Nova placa monitorada salva com sucesso. ID: {}, Placa: {}", entidadeSalva.getId(), entidadeSalva.getPlaca());
+        indicePlacas.atualizar(entidadeSalva.getPlaca(), entidadeSalva.isStatusAtivo());
 
         // 5. Retorna um NOVO DTO criado a partir da entidade JÁ SALVA.
         return new PlacaMonitoradaDTO(entidadeSalva);
@@ -276,19 +428,29 @@ public class MonitoramentoService {
         PlacaMonitorada entity = placaRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Placa com ID " + id + " não encontrada."));
 
+        String placaAnterior = entity.getPlaca();
         mapDtoToEntity(dto, entity);
         entity = placaRepository.save(entity);
+
+        if (!placaAnterior.equals(entity.getPlaca())) {
+            indicePlacas.remover(placaAnterior);
+        }
+        indicePlacas.atualizar(entity.getPlaca(), entity.isStatusAtivo());
         return new PlacaMonitoradaDTO(entity);
     }
 
     /**
      * Deleta uma placa do monitoramento.
+     * Usa um único DELETE e deixa o banco apagar os alertas (ON DELETE CASCADE), sem carregar
+     * a entidade nem o histórico dela: o custo não depende da quantidade de alertas no JPA.
      */
     public void delete(Long id) {
-        if (!placaRepository.existsById(id)) {
+        String placa = placaRepository.findPlacaById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Placa com ID " + id + " não encontrada para exclusão."));
+        if (placaRepository.excluirPorId(id) == 0) {
             throw new EntityNotFoundException("Placa com ID " + id + " não encontrada para exclusão.");
         }
-        placaRepository.deleteById(id);
+        indicePlacas.remover(placa);
         logger.info("Placa monitorada com ID {} e todos os seus alertas associados foram deletados.", id);
     }
 
@@ -297,34 +459,64 @@ public class MonitoramentoService {
      */
     @Transactional(readOnly = true)
     public Page<AlertaPassagemDTO> findAlerts(Pageable pageable) {
-        Page<AlertaPassagem> page = alertaRepository.findAll(pageable);
+        // A placa monitorada vem na mesma consulta (fetch join), evitando um SELECT extra por alerta
+        Page<AlertaPassagem> page = alertaRepository.findAllComPlaca(pageable);
         // Usa .map() para converter cada AlertaPassagem em um AlertaPassagemDTO
         return page.map(AlertaPassagemDTO::new);
     }
 
-    public List<AlertaPassagemDTO> buscarUltimosAlertas() {
-        // Busca os 20 alertas mais recentes
-        Pageable top20 = PageRequest.of(0, 20, Sort.by("dataHora").descending());
+    /**
+     * Histórico de alertas paginado por cursor (keyset), do mais recente para o mais antigo.
+     * Em vez de OFFSET, cada página continua a partir do (timestampAlerta, id) do último item da anterior,
+     * usando o índice idx_alertas_passagens_timestamp_id: a página N custa o mesmo que a primeira.
+     * O total só é contado se {@code incluirTotal} for verdadeiro.
+     *
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<AlertaPassagemDTO> findAlertsPorCursor(String cursor, int tamanho, String placa,
+                                                                  boolean incluirTotal) {
+        int limite = Math.min(Math.max(tamanho, 1), TAMANHO_MAXIMO_PAGINA_CURSOR);
+
+        Specification<AlertaPassagem> filtro = Specification.where(null);
+        if (StringUtils.hasText(placa)) {
+            String placaFormatada = placa.toUpperCase().trim();
+            filtro = filtro.and((root, query, cb) -> cb.equal(root.get("placa"), placaFormatada));
+        }
+        Long total = incluirTotal ? alertaRepository.count(filtro) : null;
 
-        // Substitua 'alertaPassagemRepository' pelo nome correto do seu repositório injetado
-        return alertaRepository.findAll(top20).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (StringUtils.hasText(cursor)) {
+            filtro = filtro.and(aposCursor(CursorAlerta.decodificar(cursor)));
+        }
+
+        Sort ordem = Sort.by(Sort.Order.desc("timestampAlerta"), Sort.Order.desc("id"));
+        List<AlertaPassagem> encontrados = alertaRepository.findBy(filtro,
+                consulta -> consulta.project("placaMonitorada").sortBy(ordem).limit(limite + 1).all());
+
+        boolean temMais = encontrados.size() > limite;
+        List<AlertaPassagem> pagina = temMais ? encontrados.subList(0, limite) : encontrados;
+        String proximoCursor = null;
+        if (temMais) {
+            AlertaPassagem ultimo = pagina.get(pagina.size() - 1);
+            proximoCursor = new CursorAlerta(ultimo.getTimestampAlerta(), ultimo.getId()).codificar();
+        }
+        return new PaginaCursorDTO<>(pagina.stream().map(AlertaPassagemDTO::new).toList(), proximoCursor, temMais, total);
+    }
+
+    // (timestamp, id) < (cursor.timestamp, cursor.id), escrito de forma que o "timestamp <=" vire condição de índice
+    private Specification<AlertaPassagem> aposCursor(CursorAlerta posicao) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("timestampAlerta"), posicao.timestampAlerta()),
+                cb.or(
+                        cb.lessThan(root.get("timestampAlerta"), posicao.timestampAlerta()),
+                        cb.lessThan(root.get("id"), posicao.id())));
     }
 
-    // Método auxiliar simples de conversão (ou use ModelMapper se já tiver)
-    private AlertaPassagemDTO convertToDTO(AlertaPassagem entity) {
-        AlertaPassagemDTO dto = new AlertaPassagemDTO();
-        dto.setId(entity.getId());
-        dto.setData(entity.getData());
-        dto.setHora(entity.getHora());
-        dto.setPlaca(entity.getPlaca());
-        dto.setPraca(entity.getPraca());
-        dto.setRodovia(entity.getRodovia());
-        dto.setKm(entity.getKm());
-        dto.setSentido(entity.getSentido());
-
-        return dto;
+    /**
+     * Últimos alertas confirmados, servidos do buffer em memória (sem consulta ao banco).
+     */
+    public List<AlertaPassagemDTO> buscarUltimosAlertas() {
+        return ultimosAlertas.ultimos();
     }
 
     // Método auxiliar para mapear os dados do DTO para a Entidade
@@ -0,0 +1,179 @@
+package com.coruja.services;
+
+import com.coruja.entities.EventoOutbox;
+import com.coruja.repositories.EventoOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drena a tabela outbox_eventos em lotes: envia as mensagens do Telegram pelo {@link TelegramDispatcher}
+ * e publica os eventos alerta.confirmado no radares_exchange pelo {@link PublicadorAlertas}, que só conclui
+ * o envio quando o broker confirma a mensagem. Um evento só é apagado depois de entregue;
+ * em caso de falha ele é reagendado com espera crescente (entrega "at-least-once").
+ * <p>
+ * A thread do agendador não espera as entregas: cada envio, ao terminar, registra o resultado, e a rodada
+ * seguinte apaga ou reagenda em lote os eventos concluídos. Enquanto um evento está em andamento nesta
+ * instância, a reserva dele é renovada, para que não seja pego de novo (e enviado em duplicidade) só porque
+ * a entrega demorou mais que {@code reserva-segundos} (ex: fila de um grupo limitado a 20 mensagens/min).
+ * O número de eventos em andamento é limitado por {@code max-em-andamento}.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 300;
+
+    private final EventoOutboxRepository outboxRepository;
+    private final TelegramService telegramService;
+    private final PublicadorAlertas publicadorAlertas;
+    private final MetricasMonitoramento metricas;
+
+    // Eventos enviados e ainda sem resultado, com o instante (nanoTime) da última reserva
+    private final Map<Long, Long> emAndamento = new ConcurrentHashMap<>();
+    private final Queue<Resultado> concluidos = new ConcurrentLinkedQueue<>();
+
+    @Value("${monitoramento.outbox.lote:200}")
+    private int tamanhoLote;
+
+    @Value("${monitoramento.outbox.reserva-segundos:60}")
+    private long reservaSegundos;
+
+    @Value("${monitoramento.outbox.max-tentativas:10}")
+    private int maxTentativas;
+
+    @Value("${monitoramento.outbox.max-em-andamento:2000}")
+    private int maxEmAndamento;
+
+    public OutboxRelay(EventoOutboxRepository outboxRepository,
+                       TelegramService telegramService,
+                       PublicadorAlertas publicadorAlertas,
+                       MetricasMonitoramento metricas) {
+        this.outboxRepository = outboxRepository;
+        this.telegramService = telegramService;
+        this.publicadorAlertas = publicadorAlertas;
+        this.metricas = metricas;
+    }
+
+    @Scheduled(fixedDelayString = "${monitoramento.outbox.intervalo-ms:500}")
+    public void drenar() {
+        try {
+            registrarConcluidos();
+            renovarReservas();
+            int vagas;
+            while ((vagas = Math.min(tamanhoLote, maxEmAndamento - emAndamento.size())) > 0) {
+                List<EventoOutbox> lote = outboxRepository.reservarLote(vagas, reservaSegundos);
+                if (!lote.isEmpty()) {
+                    entregar(lote);
+                }
+                if (lote.size() < vagas) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Erro ao drenar a outbox de eventos.", e);
+        }
+    }
+
+    private void entregar(List<EventoOutbox> lote) {
+        // Em ordem de gravação, para que as mensagens de um mesmo chat saiam na ordem dos alertas
+        lote.sort(Comparator.comparing(EventoOutbox::getId));
+
+        long agora = System.nanoTime();
+        lote.forEach(evento -> emAndamento.put(evento.getId(), agora));
+
+        List<EventoOutbox> alertasConfirmados = new ArrayList<>();
+        for (EventoOutbox evento : lote) {
+            switch (evento.getTipo()) {
+                case TELEGRAM -> aoConcluir(evento, telegramService.enviarMensagem(evento.getPayload(), evento.getDestino()));
+                case ALERTA_CONFIRMADO -> alertasConfirmados.add(evento);
+            }
+        }
+        if (!alertasConfirmados.isEmpty()) {
+            publicarAlertasConfirmados(alertasConfirmados);
+        }
+    }
+
+    // A latência medida vai da submissão até a confirmação do broker (inclui a espera no estágio de publicação)
+    private void publicarAlertasConfirmados(List<EventoOutbox> eventos) {
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> confirmacoes = publicadorAlertas.publicar(eventos);
+        for (int i = 0; i < eventos.size(); i++) {
+            aoConcluir(eventos.get(i), confirmacoes.get(i)
+                    .whenComplete((ok, erro) -> metricas.publicacao(inicio, erro == null)));
+        }
+    }
+
+    private void aoConcluir(EventoOutbox evento, CompletableFuture<Void> envio) {
+        envio.whenComplete((ok, erro) -> concluidos.add(new Resultado(evento, erro == null)));
+    }
+
+    /**
+     * Apaga os eventos entregues (e os que esgotaram as tentativas) e reagenda os que falharam,
+     * em lote, com os resultados acumulados desde a rodada anterior.
+     */
+    private void registrarConcluidos() {
+        List<Long> entregues = new ArrayList<>();
+        Map<Long, List<Long>> reagendamentos = new HashMap<>();
+        int desistencias = 0;
+        Resultado resultado;
+        while ((resultado = concluidos.poll()) != null) {
+            EventoOutbox evento = resultado.evento();
+            emAndamento.remove(evento.getId());
+            if (resultado.entregue()) {
+                entregues.add(evento.getId());
+            } else if (evento.getTentativas() + 1 >= maxTentativas) {
+                logger.error("Evento {} da outbox ({} para {}) descartado após {} tentativas.",
+                        evento.getId(), evento.getTipo(), evento.getDestino(), maxTentativas);
+                entregues.add(evento.getId());
+                desistencias++;
+            } else {
+                long espera = Math.min(ESPERA_MAXIMA_SEGUNDOS, 1L << Math.min(evento.getTentativas() + 1, 10));
+                reagendamentos.computeIfAbsent(espera, e -> new ArrayList<>()).add(evento.getId());
+            }
+        }
+
+        if (!entregues.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(entregues);
+        }
+        reagendamentos.forEach((espera, ids) -> outboxRepository.reagendar(ids, espera));
+        if (!entregues.isEmpty() || !reagendamentos.isEmpty()) {
+            logger.debug("Outbox: {} eventos entregues, {} reagendados.", entregues.size() - desistencias,
+                    reagendamentos.values().stream().mapToInt(List::size).sum());
+        }
+    }
+
+    // Renova a reserva dos eventos em andamento há mais de meia reserva, antes que ela expire
+    private void renovarReservas() {
+        long agora = System.nanoTime();
+        long limite = agora - TimeUnit.SECONDS.toNanos(reservaSegundos) / 2;
+        List<Long> renovar = new ArrayList<>();
+        emAndamento.forEach((id, reservadoEm) -> {
+            if (reservadoEm < limite) {
+                renovar.add(id);
+            }
+        });
+        if (!renovar.isEmpty()) {
+            outboxRepository.renovarReserva(renovar, reservaSegundos);
+            renovar.forEach(id -> emAndamento.replace(id, agora));
+            logger.debug("Outbox: reserva de {} eventos em andamento renovada.", renovar.size());
+        }
+    }
+
+    private record Resultado(EventoOutbox evento, boolean entregue) {
+    }
+}
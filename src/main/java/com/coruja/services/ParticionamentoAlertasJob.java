@@ -0,0 +1,135 @@
+package com.coruja.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Manutenção das partições mensais de alertas_passagens (ver migração V8):
+ * cria com antecedência as partições dos próximos meses e remove as que saíram da janela de retenção.
+ * Remover uma partição é uma operação de metadados (DETACH + DROP), sem o custo de um DELETE linha a linha.
+ * Roda na inicialização e diariamente; é idempotente, então várias réplicas podem executá-la.
+ */
+@Component
+public class ParticionamentoAlertasJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParticionamentoAlertasJob.class);
+
+    private static final String TABELA = "alertas_passagens";
+    private static final Pattern NOME_PARTICAO = Pattern.compile(TABELA + "_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${monitoramento.alertas.particionamento.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${monitoramento.alertas.particionamento.meses-futuros:3}")
+    private int mesesFuturos;
+
+    // Quantidade de meses mantidos, contando o atual; 0 desativa a remoção
+    @Value("${monitoramento.alertas.particionamento.retencao-meses:24}")
+    private int retencaoMeses;
+
+    // DROP apaga a partição; DETACH apenas a desanexa (para arquivamento manual)
+    @Value("${monitoramento.alertas.particionamento.acao-retencao:DROP}")
+    private String acaoRetencao;
+
+    public ParticionamentoAlertasJob(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        manterParticoes();
+    }
+
+    @Scheduled(cron = "${monitoramento.alertas.particionamento.cron:0 15 3 * * *}")
+    public void manterParticoes() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            if (!tabelaParticionada()) {
+                logger.warn("Tabela {} não é particionada; manutenção de partições ignorada.", TABELA);
+                return;
+            }
+            YearMonth atual = YearMonth.now();
+            for (int i = 0; i <= mesesFuturos; i++) {
+                criarParticao(atual.plusMonths(i));
+            }
+            if (retencaoMeses > 0) {
+                removerParticoesAntigas(atual.minusMonths(retencaoMeses - 1L));
+            }
+        } catch (DataAccessException e) {
+            logger.error("Erro na manutenção das partições de {}.", TABELA, e);
+        }
+    }
+
+    private boolean tabelaParticionada() {
+        Integer total = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_partitioned_table pt
+                JOIN pg_class c ON c.oid = pt.partrelid
+                WHERE c.relname = ?
+                """, Integer.class, TABELA);
+        return total != null && total > 0;
+    }
+
+    private void criarParticao(YearMonth mes) {
+        String nome = TABELA + "_" + mes.format(SUFIXO);
+        LocalDate inicio = mes.atDay(1);
+        LocalDate fim = mes.plusMonths(1).atDay(1);
+        try {
+            // Nome e limites vêm de YearMonth (sem entrada externa), seguros para concatenação
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + nome + " PARTITION OF " + TABELA
+                    + " FOR VALUES FROM ('" + inicio + "') TO ('" + fim + "')");
+        } catch (DataAccessException e) {
+            // Ex.: a partição DEFAULT já recebeu linhas desse mês
+            logger.error("Não foi possível criar a partição {}.", nome, e);
+        }
+    }
+
+    private void removerParticoesAntigas(YearMonth primeiroMesMantido) {
+        List<String> particoes = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, TABELA);
+
+        for (String particao : particoes) {
+            Matcher matcher = NOME_PARTICAO.matcher(particao);
+            if (!matcher.matches()) {
+                continue; // partição DEFAULT ou criada manualmente
+            }
+            YearMonth mes = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!mes.isBefore(primeiroMesMantido)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + TABELA + " DETACH PARTITION " + particao);
+                if ("DROP".equalsIgnoreCase(acaoRetencao)) {
+                    jdbcTemplate.execute("DROP TABLE " + particao);
+                    logger.info("Partição {} removida (retenção de {} meses).", particao, retencaoMeses);
+                } else {
+                    logger.info("Partição {} desanexada (retenção de {} meses).", particao, retencaoMeses);
+                }
+            } catch (DataAccessException e) {
+                logger.error("Não foi possível remover a partição {}.", particao, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.coruja.services;
+
+import com.coruja.config.ProcessamentoConfig;
+import com.coruja.config.RabbitMQConfig;
+import com.coruja.entities.EventoOutbox;
+import com.coruja.util.EstagioPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica os eventos alerta.confirmado com confirmação do broker (publisher confirms correlacionados
+ * e mensagens devolvidas, ver {@code spring.rabbitmq.publisher-confirm-type} e {@code template.mandatory}).
+ * <p>
+ * A publicação não espera a confirmação: cada evento recebe um future que só é concluído com sucesso
+ * quando o broker confirma (ack) e a mensagem não foi devolvida por falta de fila. Nack, devolução,
+ * erro de envio ou confirmação que não chega em {@code confirmacao-timeout-ms} concluem o future com erro,
+ * e o {@link OutboxRelay} reagenda o evento, que continua na outbox até ser confirmado.
+ * <p>
+ * O número de publicações aguardando confirmação é limitado ({@code max-pendentes}); sem vaga dentro da
+ * espera do estágio de publicação, o evento falha e volta para a outbox em vez de acumular em memória.
+ * <p>
+ * Com {@code lote.habilitado}, os eventos de um lote da outbox são publicados em sequência em um único
+ * canal ({@link RabbitTemplate#invoke}), sem obter um canal do cache por mensagem; útil em rajadas de alertas.
+ */
+@Component
+public class PublicadorAlertas {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicadorAlertas.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final EstagioPipeline publicacaoEstagio;
+    private final ConversorAlertaConfirmado conversorAlerta;
+    private final Semaphore vagas;
+    private final long timeoutConfirmacaoMs;
+    private final long esperaVagaMs;
+    private final boolean emLote;
+
+    public PublicadorAlertas(RabbitTemplate rabbitTemplate,
+                             @Qualifier(ProcessamentoConfig.ESTAGIO_PUBLICACAO) EstagioPipeline publicacaoEstagio,
+                             ConversorAlertaConfirmado conversorAlerta,
+                             @Value("${monitoramento.publicacao.max-pendentes:5000}") int maxPendentes,
+                             @Value("${monitoramento.publicacao.confirmacao-timeout-ms:10000}") long timeoutConfirmacaoMs,
+                             @Value("${monitoramento.pipeline.espera-maxima-ms:2000}") long esperaVagaMs,
+                             @Value("${monitoramento.publicacao.lote.habilitado:false}") boolean emLote) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.publicacaoEstagio = publicacaoEstagio;
+        this.conversorAlerta = conversorAlerta;
+        this.vagas = new Semaphore(maxPendentes);
+        this.timeoutConfirmacaoMs = timeoutConfirmacaoMs;
+        this.esperaVagaMs = esperaVagaMs;
+        this.emLote = emLote;
+    }
+
+    /**
+     * Publica os eventos no radares_exchange.
+     *
+     * @return um future por evento, na mesma ordem, concluído quando o broker confirmar a mensagem.
+     */
+    public List<CompletableFuture<Void>> publicar(List<EventoOutbox> eventos) {
+        List<CompletableFuture<Void>> confirmacoes = new ArrayList<>(eventos.size());
+        if (emLote) {
+            List<Publicacao> publicacoes = new ArrayList<>(eventos.size());
+            for (EventoOutbox evento : eventos) {
+                Publicacao publicacao = new Publicacao(evento);
+                publicacoes.add(publicacao);
+                confirmacoes.add(publicacao.confirmacao);
+            }
+            publicacaoEstagio.submeter(() -> rabbitTemplate.invoke(operacoes -> {
+                        publicacoes.forEach(publicacao -> enviar(operacoes, publicacao));
+                        return null;
+                    }))
+                    .whenComplete((ok, erro) -> {
+                        if (erro != null) {
+                            publicacoes.forEach(publicacao -> publicacao.falhar(erro));
+                        }
+                    });
+        } else {
+            for (EventoOutbox evento : eventos) {
+                Publicacao publicacao = new Publicacao(evento);
+                confirmacoes.add(publicacao.confirmacao);
+                publicacaoEstagio.submeter(() -> enviar(rabbitTemplate, publicacao))
+                        .whenComplete((ok, erro) -> {
+                            if (erro != null) {
+                                publicacao.falhar(erro);
+                            }
+                        });
+            }
+        }
+        return confirmacoes;
+    }
+
+    private void enviar(RabbitOperations operacoes, Publicacao publicacao) {
+        try {
+            if (!vagas.tryAcquire(esperaVagaMs, TimeUnit.MILLISECONDS)) {
+                publicacao.falhar(new IllegalStateException("Limite de publicações aguardando confirmação atingido."));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            publicacao.falhar(e);
+            return;
+        }
+
+        EventoOutbox evento = publicacao.evento;
+        CorrelationData correlacao = new CorrelationData(String.valueOf(evento.getId()));
+        correlacao.getFuture()
+                .orTimeout(timeoutConfirmacaoMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirmacao, erro) -> {
+                    vagas.release();
+                    ReturnedMessage devolvida = correlacao.getReturned();
+                    if (erro != null) {
+                        publicacao.falhar(erro);
+                    } else if (devolvida != null) {
+                        logger.warn("Evento {} devolvido pelo broker ({} {}): nenhuma fila para '{}'.", evento.getId(),
+                                devolvida.getReplyCode(), devolvida.getReplyText(), devolvida.getRoutingKey());
+                        publicacao.falhar(new IllegalStateException("Mensagem devolvida: " + devolvida.getReplyText()));
+                    } else if (!confirmacao.isAck()) {
+                        logger.warn("Evento {} recusado pelo broker (nack): {}", evento.getId(), confirmacao.getReason());
+                        publicacao.falhar(new IllegalStateException("Nack do broker: " + confirmacao.getReason()));
+                    } else {
+                        publicacao.confirmacao.complete(null);
+                    }
+                });
+        try {
+            operacoes.send(RabbitMQConfig.EXCHANGE_NAME, evento.getDestino(), mensagem(evento), correlacao);
+        } catch (RuntimeException e) {
+            // Sem envio não há confirmação: libera a vaga já
+            correlacao.getFuture().completeExceptionally(e);
+        }
+    }
+
+    // O corpo já foi serializado ao gravar a outbox; eventos anteriores ao V9 têm só o JSON em texto
+    private Message mensagem(EventoOutbox evento) {
+        if (evento.getConteudo() != null) {
+            return conversorAlerta.mensagem(evento.getConteudo(), evento.getTipoConteudo());
+        }
+        return conversorAlerta.mensagem(evento.getPayload().getBytes(StandardCharsets.UTF_8), ConversorAlertaConfirmado.TEXTO);
+    }
+
+    private static final class Publicacao {
+        private final EventoOutbox evento;
+        private final CompletableFuture<Void> confirmacao = new CompletableFuture<>();
+
+        private Publicacao(EventoOutbox evento) {
+            this.evento = evento;
+        }
+
+        private void falhar(Throwable erro) {
+            confirmacao.completeExceptionally(erro);
+        }
+    }
+}
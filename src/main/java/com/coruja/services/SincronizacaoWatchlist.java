@@ -0,0 +1,115 @@
+package com.coruja.services;
+
+import com.coruja.config.RabbitMQConfig;
+import com.coruja.dto.AlteracaoWatchlistDTO;
+import com.coruja.repositories.PlacaMonitoradaRepository;
+import com.coruja.repositories.PlacaMonitoradaRepository.VersaoWatchlist;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Mantém o {@link IndicePlacasAtivas} de todas as réplicas sincronizado.
+ * <p>
+ * Cada alteração confirmada nesta instância é publicada no radares_exchange (routing key watchlist.alterada);
+ * cada réplica tem uma fila anônima própria ligada a essa routing key e aplica as alterações das outras.
+ * O envio é direto, sem outbox: se um evento se perder, a reconciliação periódica compara um resumo
+ * das placas ativas no banco (quantidade e soma de verificação do conjunto) com o mesmo resumo calculado sobre
+ * o índice, e o recarrega quando divergem. A soma de verificação detecta também a troca de uma placa ativa por
+ * outra, que não altera as contagens.
+ */
+@Component
+public class SincronizacaoWatchlist {
+
+    private static final Logger logger = LoggerFactory.getLogger(SincronizacaoWatchlist.class);
+
+    private record Versao(long ativas, long somaVerificacao) {}
+
+    private final String instanciaId = UUID.randomUUID().toString();
+
+    private final IndicePlacasAtivas indicePlacas;
+    private final PlacaMonitoradaRepository placaRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+
+    public SincronizacaoWatchlist(IndicePlacasAtivas indicePlacas,
+                                  PlacaMonitoradaRepository placaRepository,
+                                  RabbitTemplate rabbitTemplate,
+                                  ObjectMapper objectMapper) {
+        this.indicePlacas = indicePlacas;
+        this.placaRepository = placaRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Repassa às demais réplicas uma alteração feita nesta instância (já aplicada no índice local).
+     */
+    @EventListener
+    public void publicar(AlteracaoWatchlistDTO alteracao) {
+        if (alteracao.getOrigem() != null) {
+            return;
+        }
+        alteracao.setOrigem(instanciaId);
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.WATCHLIST_ROUTING_KEY,
+                    objectMapper.writeValueAsString(alteracao));
+        } catch (Exception e) {
+            // As outras réplicas se ajustam na próxima reconciliação
+            logger.warn("Falha ao publicar alteração da lista de placas ({}): {}", alteracao.getPlaca(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{watchlistQueue.name}")
+    public void receber(Message mensagem) {
+        AlteracaoWatchlistDTO alteracao;
+        try {
+            alteracao = objectMapper.readValue(mensagem.getBody(), AlteracaoWatchlistDTO.class);
+        } catch (IOException e) {
+            logger.error("Evento de alteração da lista de placas inválido, descartado: {}", e.getMessage());
+            return;
+        }
+        if (instanciaId.equals(alteracao.getOrigem())) {
+            return;
+        }
+        if (alteracao.isRecarregar()) {
+            indicePlacas.recarregar();
+        } else if (alteracao.getPlaca() != null) {
+            indicePlacas.aplicarAlteracaoRemota(alteracao.getPlaca(), alteracao.isAtiva());
+        }
+    }
+
+    /**
+     * Compara o resumo das placas ativas no banco (quantidade e soma de verificação, um único agregado sobre
+     * placas_monitoradas) com o do índice desta réplica, e só recarrega o índice quando divergem. Alterações
+     * já aplicadas pelos eventos não causam recarga; eventos perdidos, sim, mesmo que a tabela não mude mais.
+     */
+    @Scheduled(fixedDelayString = "${monitoramento.watchlist.reconciliacao-ms:60000}",
+            initialDelayString = "${monitoramento.watchlist.reconciliacao-ms:60000}")
+    public void reconciliar() {
+        try {
+            VersaoWatchlist resumo = placaRepository.findVersaoWatchlist();
+            Versao banco = new Versao(
+                    Objects.requireNonNullElse(resumo.getAtivas(), 0L),
+                    Objects.requireNonNullElse(resumo.getSomaVerificacao(), 0L));
+            Versao indice = new Versao(indicePlacas.tamanho(), indicePlacas.somaVerificacao());
+            if (!banco.equals(indice)) {
+                logger.warn("Índice de placas divergente do banco ({} ativas no banco, {} no índice; somas {} e {}). Recarregando.",
+                        banco.ativas(), indice.ativas(), banco.somaVerificacao(), indice.somaVerificacao());
+                indicePlacas.recarregar();
+            }
+        } catch (Exception e) {
+            logger.error("Erro na reconciliação do índice de placas monitoradas.", e);
+        }
+    }
+}
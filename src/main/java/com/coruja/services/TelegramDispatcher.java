@@ -0,0 +1,346 @@
+package com.coruja.services;
+
+import com.coruja.util.TokenBucket;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Despachante das mensagens enviadas ao Telegram (sendMessage).
+ * <ul>
+ *     <li>Respeita os limites da API: um balde global (~30 msg/s por bot) e um por chat
+ *     (~20 msg/min em grupos, ~1 msg/s em conversas privadas).</li>
+ *     <li>Mantém uma fila por chat, com no máximo um envio em andamento por chat, preservando a ordem.</li>
+ *     <li>Quando um chat fica para trás, junta as mensagens pendentes dele em uma só (até o limite de 4096 caracteres).</li>
+ *     <li>Em 429, aguarda o {@code retry_after} informado e reenvia (até {@code max-limitacoes} vezes);
+ *     erros 5xx e de rede são repetidos com espera crescente (até {@code max-tentativas} vezes).</li>
+ *     <li>Os chats são atendidos em rodízio: quando o limite global acaba no meio de uma rodada,
+ *     a próxima começa pelo chat que ficou sem vez.</li>
+ *     <li>A fila de um chat ocioso (vazia e com o limite do chat recomposto) é descartada.</li>
+ * </ul>
+ * A capacidade total é limitada; quando a fila está cheia, o envio é recusado (future concluído com erro).
+ */
+@Component
+public class TelegramDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelegramDispatcher.class);
+
+    private static final int LIMITE_CARACTERES = 4096;
+    private static final String SEPARADOR_AGRUPADAS = "\n\n➖➖➖➖➖\n\n";
+
+    private final WebClient webClient;
+    private final ScheduledExecutorService agendador;
+    private final Map<String, FilaChat> filas = new ConcurrentHashMap<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final TokenBucket limiteGlobal;
+    private final MetricasMonitoramento metricas;
+    private final String botToken;
+
+    private final int capacidade;
+    private final double grupoPorMinuto;
+    private final double privadoPorSegundo;
+    private final int maxTentativas;
+    private final int maxLimitacoes;
+    private final long intervaloMs;
+    private int cursor;
+
+    public TelegramDispatcher(WebClient.Builder webClientBuilder,
+                              @Value("${telegram.dispatcher.capacidade:10000}") int capacidade,
+                              @Value("${telegram.dispatcher.global-por-segundo:30}") double globalPorSegundo,
+                              @Value("${telegram.dispatcher.grupo-por-minuto:20}") double grupoPorMinuto,
+                              @Value("${telegram.dispatcher.privado-por-segundo:1}") double privadoPorSegundo,
+                              @Value("${telegram.dispatcher.max-tentativas:5}") int maxTentativas,
+                              @Value("${telegram.dispatcher.max-limitacoes:10}") int maxLimitacoes,
+                              @Value("${telegram.dispatcher.intervalo-ms:25}") long intervaloMs,
+                              @Value("${telegram.api.url:https://api.telegram.org}") String apiUrl,
+                              @Value("${telegram.bot.token}") String botToken,
+                              MetricasMonitoramento metricas) {
+        this.webClient = webClientBuilder.clone().baseUrl(apiUrl).build();
+        this.botToken = botToken;
+        this.capacidade = capacidade;
+        this.limiteGlobal = new TokenBucket(globalPorSegundo, globalPorSegundo);
+        this.grupoPorMinuto = grupoPorMinuto;
+        this.privadoPorSegundo = privadoPorSegundo;
+        this.maxTentativas = maxTentativas;
+        this.maxLimitacoes = maxLimitacoes;
+        this.intervaloMs = intervaloMs;
+        this.metricas = metricas;
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "telegram-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Começa a drenar as filas depois que o bean estiver completamente inicializado.
+     */
+    @PostConstruct
+    public void iniciar() {
+        agendador.scheduleWithFixedDelay(this::drenar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Enfileira a mensagem para o chat.
+     *
+     * @return future concluído quando o Telegram aceitar a mensagem, ou com erro se ela for recusada
+     * (fila cheia, erro definitivo da API ou tentativas esgotadas).
+     */
+    public CompletableFuture<Void> enviar(String chatId, String mensagem) {
+        CompletableFuture<Void> resultado = new CompletableFuture<>();
+        if (pendentes.incrementAndGet() > capacidade) {
+            pendentes.decrementAndGet();
+            logger.error("Fila do Telegram cheia ({} mensagens). Mensagem para o chat {} recusada.", capacidade, chatId);
+            resultado.completeExceptionally(new IllegalStateException("Fila de envio do Telegram cheia."));
+            return resultado;
+        }
+        Pendente pendente = new Pendente(mensagem, resultado);
+        while (true) {
+            FilaChat fila = filas.computeIfAbsent(chatId, this::novaFila);
+            synchronized (fila) {
+                // A fila pode ter sido descartada por ociosidade entre a busca e o lock: pega a nova
+                if (!fila.descartada) {
+                    fila.mensagens.addLast(pendente);
+                    return resultado;
+                }
+            }
+        }
+    }
+
+    public int pendentes() {
+        return pendentes.get();
+    }
+
+    // Chats com fila em memória (as ociosas são descartadas)
+    int chatsComFila() {
+        return filas.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdown();
+        if (pendentes.get() > 0) {
+            logger.warn("Encerrando o despachante do Telegram com {} mensagens pendentes.", pendentes.get());
+        }
+    }
+
+    private FilaChat novaFila(String chatId) {
+        // Ids de grupos e canais no Telegram são negativos
+        boolean grupo = chatId.startsWith("-");
+        TokenBucket limite = grupo
+                ? new TokenBucket(1, grupoPorMinuto / 60d)
+                : new TokenBucket(1, privadoPorSegundo);
+        return new FilaChat(chatId, grupo ? "grupo" : "privado", limite);
+    }
+
+    private void drenar() {
+        try {
+            long agora = System.nanoTime();
+            List<FilaChat> rodada = new ArrayList<>(filas.values());
+            int total = rodada.size();
+            int inicio = total == 0 ? 0 : Math.floorMod(cursor, total);
+            for (int k = 0; k < total; k++) {
+                FilaChat fila = rodada.get((inicio + k) % total);
+                Lote lote;
+                synchronized (fila) {
+                    if (fila.emAndamento || agora < fila.bloqueadoAte) {
+                        continue;
+                    }
+                    if (fila.mensagens.isEmpty()) {
+                        descartarSeOciosa(fila);
+                        continue;
+                    }
+                    if (!fila.limite.tentarConsumir()) {
+                        continue;
+                    }
+                    if (!limiteGlobal.tentarConsumir()) {
+                        fila.limite.devolver();
+                        // A próxima rodada começa por este chat
+                        cursor = inicio + k;
+                        return;
+                    }
+                    lote = retirarLote(fila);
+                    fila.emAndamento = true;
+                }
+                despachar(fila, lote);
+            }
+            cursor = inicio + 1;
+        } catch (Exception e) {
+            logger.error("Erro inesperado no despachante do Telegram.", e);
+        }
+    }
+
+    // Chamado com o lock da fila: só descarta se o limite do chat já se recompôs, para não perder o controle de taxa
+    private void descartarSeOciosa(FilaChat fila) {
+        if (fila.limite.cheio()) {
+            fila.descartada = true;
+            filas.remove(fila.chatId, fila);
+        }
+    }
+
+    // Junta as mensagens pendentes do chat enquanto couberem em uma única mensagem do Telegram
+    private Lote retirarLote(FilaChat fila) {
+        List<Pendente> itens = new ArrayList<>();
+        Pendente primeira = fila.mensagens.pollFirst();
+        itens.add(primeira);
+        StringBuilder texto = new StringBuilder(primeira.mensagem);
+        Pendente proxima;
+        while ((proxima = fila.mensagens.peekFirst()) != null
+                && texto.length() + SEPARADOR_AGRUPADAS.length() + proxima.mensagem.length() <= LIMITE_CARACTERES) {
+            fila.mensagens.pollFirst();
+            itens.add(proxima);
+            texto.append(SEPARADOR_AGRUPADAS).append(proxima.mensagem);
+        }
+        if (itens.size() > 1) {
+            logger.info("Chat {} atrasado: {} alertas agrupados em uma única mensagem.", fila.chatId, itens.size());
+        }
+        return new Lote(itens, texto.toString());
+    }
+
+    private void despachar(FilaChat fila, Lote lote) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("chat_id", fila.chatId);
+        body.put("text", lote.texto);
+        body.put("parse_mode", "HTML");
+
+        logger.info("Enviando mensagem para Telegram ID: {}", fila.chatId);
+        long inicio = System.nanoTime();
+
+        webClient.post()
+                .uri("/bot" + botToken + "/sendMessage")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchangeToMono(resposta -> resposta.bodyToMono(JsonNode.class)
+                        .defaultIfEmpty(MissingNode.getInstance())
+                        .map(json -> new Resposta(resposta.statusCode().value(), json)))
+                .subscribe(
+                        resposta -> {
+                            metricas.envioTelegram(fila.tipo, Integer.toString(resposta.status), inicio);
+                            tratarResposta(fila, lote, resposta);
+                        },
+                        erro -> {
+                            metricas.envioTelegram(fila.tipo, "erro", inicio);
+                            tratarFalha(fila, lote, "Erro ao enviar mensagem Telegram: " + erro.getMessage(), erro);
+                        });
+    }
+
+    private void tratarResposta(FilaChat fila, Lote lote, Resposta resposta) {
+        if (resposta.status >= 200 && resposta.status < 300) {
+            logger.debug("Mensagem Telegram enviada. Status: {}", resposta.status);
+            concluir(fila, lote, null);
+            return;
+        }
+        if (resposta.status == 429) {
+            long retryAfter = resposta.json.path("parameters").path("retry_after").asLong(1);
+            int limitacao = ++lote.itens.get(0).limitacoes;
+            if (limitacao > maxLimitacoes) {
+                logger.error("Telegram limitou o chat {} (429) {} vezes seguidas. Mensagem devolvida para nova tentativa posterior.",
+                        fila.chatId, maxLimitacoes);
+                concluir(fila, lote, new IllegalStateException("Telegram respondeu 429 " + maxLimitacoes + " vezes."));
+                return;
+            }
+            logger.warn("Telegram limitou o chat {} (429). Reenviando em {} s.", fila.chatId, retryAfter);
+            reenfileirar(fila, lote, Duration.ofSeconds(Math.max(1, retryAfter)));
+            return;
+        }
+        String descricao = "Telegram respondeu " + resposta.status + ": " + resposta.json.path("description").asText("");
+        if (resposta.status >= 500) {
+            tratarFalha(fila, lote, descricao, null);
+        } else {
+            // 4xx (exceto 429) não se resolve com nova tentativa
+            logger.error("Erro ao enviar mensagem Telegram para o chat {}: {}", fila.chatId, descricao);
+            concluir(fila, lote, new IllegalStateException(descricao));
+        }
+    }
+
+    private void tratarFalha(FilaChat fila, Lote lote, String descricao, Throwable causa) {
+        int tentativa = ++lote.itens.get(0).tentativas;
+        if (tentativa >= maxTentativas) {
+            logger.error("{} (chat {}). Tentativas esgotadas, mensagem descartada.", descricao, fila.chatId);
+            concluir(fila, lote, new IllegalStateException(descricao, causa));
+            return;
+        }
+        logger.warn("{} (chat {}). Tentativa {} de {}.", descricao, fila.chatId, tentativa, maxTentativas);
+        reenfileirar(fila, lote, Duration.ofSeconds(1L << Math.min(tentativa, 6)));
+    }
+
+    // Devolve as mensagens ao início da fila do chat, na mesma ordem, e bloqueia o chat pelo tempo indicado
+    private void reenfileirar(FilaChat fila, Lote lote, Duration espera) {
+        synchronized (fila) {
+            for (int i = lote.itens.size() - 1; i >= 0; i--) {
+                fila.mensagens.addFirst(lote.itens.get(i));
+            }
+            fila.bloqueadoAte = System.nanoTime() + espera.toNanos();
+            fila.emAndamento = false;
+        }
+    }
+
+    private void concluir(FilaChat fila, Lote lote, Throwable erro) {
+        synchronized (fila) {
+            fila.emAndamento = false;
+        }
+        pendentes.addAndGet(-lote.itens.size());
+        for (Pendente item : lote.itens) {
+            if (erro == null) {
+                item.resultado.complete(null);
+            } else {
+                item.resultado.completeExceptionally(erro);
+            }
+        }
+    }
+
+    private static final class FilaChat {
+        private final String chatId;
+        private final String tipo;
+        private final TokenBucket limite;
+        private final Deque<Pendente> mensagens = new ArrayDeque<>();
+        private boolean emAndamento;
+        private boolean descartada;
+        private long bloqueadoAte = Long.MIN_VALUE;
+
+        private FilaChat(String chatId, String tipo, TokenBucket limite) {
+            this.chatId = chatId;
+            this.tipo = tipo;
+            this.limite = limite;
+        }
+    }
+
+    private static final class Pendente {
+        private final String mensagem;
+        private final CompletableFuture<Void> resultado;
+        private int tentativas;
+        private int limitacoes;
+
+        private Pendente(String mensagem, CompletableFuture<Void> resultado) {
+            this.mensagem = mensagem;
+            this.resultado = resultado;
+        }
+    }
+
+    private record Lote(List<Pendente> itens, String texto) {
+    }
+
+    private record Resposta(int status, JsonNode json) {
+    }
+}
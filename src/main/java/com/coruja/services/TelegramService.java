@@ -16,6 +16,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Service
@@ -26,6 +27,7 @@ public class TelegramService {
     private static final String TELEGRAM_API_URL_TEMPLATE = "https://api.telegram.org/bot%s/sendMessage";
 
     private final UsuarioTelegramRepository usuarioTelegramRepository;
+    private final TelegramDispatcher telegramDispatcher;
 
     @Value("${telegram.bot.token}")
     private String botToken;
@@ -36,45 +38,43 @@ public class TelegramService {
     // Controle do offset para não processar mensagens repetidas
     private final AtomicLong lastUpdateId = new AtomicLong(0);
 
-    public TelegramService(WebClient.Builder webClientBuilder, UsuarioTelegramRepository usuarioTelegramRepository) {
-        // É boa prática configurar timeouts globais no Builder se necessário no futuro
-        this.webClient = webClientBuilder.baseUrl("https://api.telegram.org").build();
+    public TelegramService(WebClient.Builder webClientBuilder, UsuarioTelegramRepository usuarioTelegramRepository,
+                           TelegramDispatcher telegramDispatcher,
+                           @Value("${telegram.api.url:https://api.telegram.org}") String apiUrl) {
+        // Pool de conexões e timeouts vêm do builder configurado em WebClientConfig
+        this.webClient = webClientBuilder.clone().baseUrl(apiUrl).build();
         this.usuarioTelegramRepository = usuarioTelegramRepository;
+        this.telegramDispatcher = telegramDispatcher;
+    }
+
+    /**
+     * ID do Grupo Geral, usado como destino das notificações gravadas na outbox.
+     */
+    public String getDefaultChatId() {
+        return defaultChatId;
     }
 
     /**
      * Envia mensagem para o Canal Geral (Monitoramento)
      */
-    public void sendToGeneralChannel(String message) {
-        enviarMensagem(message, defaultChatId);
+    public CompletableFuture<Void> sendToGeneralChannel(String message) {
+        return enviarMensagem(message, defaultChatId);
     }
 
     /**
-     * Envia mensagem genérica para um Chat ID específico
+     * Envia mensagem genérica para um Chat ID específico.
+     * O envio é feito pelo {@link TelegramDispatcher}, que respeita os limites de taxa do Telegram
+     * e reenvia em caso de 429.
+     *
+     * @return future concluído quando o Telegram aceitar a mensagem.
      */
-    public void enviarMensagem(String messagem, String chatId) {
+    public CompletableFuture<Void> enviarMensagem(String messagem, String chatId) {
         if (chatId == null || chatId.isBlank()) {
             logger.warn("Tentativa de enviar mensagem sem Chat ID. Redirecionando para canal padrão.");
             chatId = defaultChatId;
         }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("chat_id", chatId.trim());
-        body.put("text", messagem);
-        body.put("parse_mode", "HTML");
-
-        logger.info("Enviando mensagem para Telegram ID: {}", chatId);
-
-        webClient.post()
-                .uri("/bot" + botToken + "/sendMessage")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(body)
-                .retrieve()
-                .toBodilessEntity() // Usamos toBodilessEntity pois não precisamos do corpo da resposta
-                .doOnSuccess(response -> logger.debug("Mensagem Telegram enviada. Status: {}", response.getStatusCode()))
-                .doOnError(error -> logger.error("Erro ao enviar mensagem Telegram: {}", error.getMessage()))
-                .onErrorResume(e -> Mono.empty()) // Evita que o erro se propague, apenas loga
-                .subscribe(); // Necessário para executar a chamada reativa
+        return telegramDispatcher.enviar(chatId.trim(), messagem);
     }
 
     /**
@@ -0,0 +1,84 @@
+package com.coruja.services;
+
+import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.repositories.AlertaPassagemRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Buffer circular em memória com os últimos N alertas confirmados, servido pelo endpoint /ultimos
+ * sem consultar o banco. É alimentado após o commit de cada lote de alertas e pré-carregado do banco
+ * na inicialização. A leitura devolve um snapshot imutável já pronto (do mais recente para o mais antigo),
+ * recalculado a cada escrita, o que favorece o padrão de muitas leituras (dashboards) e poucas escritas.
+ * <p>
+ * O buffer é local a cada réplica: só recebe os alertas gravados por ela (e os do banco na inicialização).
+ * Com mais de uma réplica, /ultimos e a retomada do SSE por Last-Event-ID ({@link AlertaStream}) mostram
+ * apenas os alertas da réplica que atendeu a requisição; o histórico completo está em /alertas/cursor.
+ */
+@Component
+public class UltimosAlertasBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UltimosAlertasBuffer.class);
+
+    private final AlertaPassagemRepository alertaRepository;
+    private final AlertaPassagemDTO[] buffer;
+    private int proximo;
+    private int tamanho;
+
+    private volatile List<AlertaPassagemDTO> snapshot = List.of();
+
+    public UltimosAlertasBuffer(AlertaPassagemRepository alertaRepository,
+                                @Value("${monitoramento.alertas.ultimos.capacidade:20}") int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException(
+                    "monitoramento.alertas.ultimos.capacidade precisa ser pelo menos 1: " + capacidade);
+        }
+        this.alertaRepository = alertaRepository;
+        this.buffer = new AlertaPassagemDTO[capacidade];
+    }
+
+    @PostConstruct
+    public void carregar() {
+        List<AlertaPassagemDTO> recentes = alertaRepository
+                .findByOrderByTimestampAlertaDescIdDesc(PageRequest.of(0, buffer.length)).stream()
+                .map(AlertaPassagemDTO::new)
+                .toList();
+        // A consulta vem do mais recente para o mais antigo; o buffer recebe em ordem cronológica
+        adicionar(recentes.reversed());
+        logger.info("Buffer de últimos alertas carregado com {} alertas.", recentes.size());
+    }
+
+    /**
+     * Adiciona alertas em ordem cronológica (o último da coleção é o mais recente).
+     */
+    public synchronized void adicionar(Collection<AlertaPassagemDTO> alertas) {
+        if (alertas.isEmpty()) {
+            return;
+        }
+        for (AlertaPassagemDTO alerta : alertas) {
+            buffer[proximo] = alerta;
+            proximo = (proximo + 1) % buffer.length;
+            tamanho = Math.min(tamanho + 1, buffer.length);
+        }
+        List<AlertaPassagemDTO> novo = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            novo.add(buffer[Math.floorMod(proximo - i, buffer.length)]);
+        }
+        snapshot = List.copyOf(novo);
+    }
+
+    /**
+     * Últimos alertas, do mais recente para o mais antigo.
+     */
+    public List<AlertaPassagemDTO> ultimos() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,116 @@
+package com.coruja.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estágio assíncrono do pipeline de alertas: fila limitada e threads próprias.
+ * Um estágio lento (Telegram, broker) só acumula trabalho na sua própria fila e não segura
+ * quem o alimenta. Quando a fila está cheia, {@link #enviar(Runnable)} espera até
+ * {@code esperaMaximaMs} por espaço (backpressure) e, esgotado o prazo, descarta a tarefa.
+ */
+public class EstagioPipeline implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstagioPipeline.class);
+
+    private final String nome;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+    private final AtomicLong descartadas = new AtomicLong();
+
+    public EstagioPipeline(String nome, int threads, int capacidadeFila, long esperaMaximaMs) {
+        this.nome = nome;
+        this.esperaMaximaMs = esperaMaximaMs;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, nome + "-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Enfileira a tarefa. Exceções lançadas pela tarefa são registradas no log e não afetam o estágio.
+     *
+     * @return {@code false} se a tarefa foi descartada por falta de espaço na fila.
+     */
+    public boolean enviar(Runnable tarefa) {
+        Runnable protegida = () -> {
+            try {
+                tarefa.run();
+            } catch (Exception e) {
+                logger.error("Erro no estágio {} do pipeline de alertas.", nome, e);
+            }
+        };
+        try {
+            executor.execute(protegida);
+            return true;
+        } catch (RejectedExecutionException cheia) {
+            try {
+                if (!executor.isShutdown() && executor.getQueue().offer(protegida, esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long total = descartadas.incrementAndGet();
+            logger.error("Fila do estágio {} cheia por mais de {} ms. Tarefa descartada (total descartado: {}).",
+                    nome, esperaMaximaMs, total);
+            return false;
+        }
+    }
+
+    /**
+     * Como {@link #enviar(Runnable)}, mas devolve um future concluído ao fim da tarefa,
+     * com erro se ela falhar ou for descartada.
+     */
+    public CompletableFuture<Void> submeter(Runnable tarefa) {
+        CompletableFuture<Void> resultado = new CompletableFuture<>();
+        boolean aceita = enviar(() -> {
+            try {
+                tarefa.run();
+                resultado.complete(null);
+            } catch (RuntimeException e) {
+                resultado.completeExceptionally(e);
+                throw e;
+            }
+        });
+        if (!aceita) {
+            resultado.completeExceptionally(new RejectedExecutionException("Fila do estágio " + nome + " cheia."));
+        }
+        return resultado;
+    }
+
+    public int pendentes() {
+        return executor.getQueue().size();
+    }
+
+    public long descartadas() {
+        return descartadas.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Estágio {} não esvaziou a fila a tempo; {} tarefas pendentes serão perdidas.",
+                        nome, executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.coruja.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executa tarefas em N partições, cada uma com uma única thread e fila própria.
+ * Tarefas com a mesma chave caem sempre na mesma partição e, portanto, executam na ordem de envio;
+ * chaves diferentes são processadas em paralelo.
+ * <p>
+ * As filas são limitadas: quando uma partição está cheia, quem envia fica bloqueado até haver espaço
+ * (em vez de executar a tarefa na própria thread, o que quebraria a ordem).
+ */
+public class ExecutorParticionado implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorParticionado.class);
+
+    private final String nome;
+    private final ThreadPoolExecutor[] particoes;
+
+    public ExecutorParticionado(String nome, int quantidadeParticoes, int capacidadeFila) {
+        if (quantidadeParticoes < 1 || capacidadeFila < 1) {
+            throw new IllegalArgumentException("Partições e capacidade da fila devem ser maiores que zero.");
+        }
+        this.nome = nome;
+        this.particoes = new ThreadPoolExecutor[quantidadeParticoes];
+        for (int i = 0; i < quantidadeParticoes; i++) {
+            particoes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacidadeFila), fabricaDeThreads(nome + "-" + i), AGUARDAR_ESPACO);
+        }
+    }
+
+    /**
+     * Agenda a tarefa na partição correspondente à chave.
+     *
+     * @return um future concluído quando a tarefa terminar (ou com a exceção que ela lançar).
+     */
+    public CompletableFuture<Void> executar(Object chave, Runnable tarefa) {
+        return CompletableFuture.runAsync(tarefa, particoes[particao(chave)]);
+    }
+
+    /**
+     * Agenda a tarefa em uma partição já calculada com {@link #particao(Object)}.
+     */
+    public CompletableFuture<Void> executarNaParticao(int particao, Runnable tarefa) {
+        return CompletableFuture.runAsync(tarefa, particoes[particao]);
+    }
+
+    public int particao(Object chave) {
+        int h = chave.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), particoes.length);
+    }
+
+    public int quantidadeParticoes() {
+        return particoes.length;
+    }
+
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor particao : particoes) {
+            particao.shutdown();
+        }
+        for (ThreadPoolExecutor particao : particoes) {
+            try {
+                if (!particao.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warn("Partição do executor {} não terminou a tempo; interrompendo.", nome);
+                    particao.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                particao.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final RejectedExecutionHandler AGUARDAR_ESPACO = (tarefa, executor) -> {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Executor encerrado.");
+        }
+        try {
+            executor.getQueue().put(tarefa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrompido aguardando espaço na fila.", e);
+        }
+    };
+
+    private static ThreadFactory fabricaDeThreads(String nomeThread) {
+        return tarefa -> {
+            Thread thread = new Thread(tarefa, nomeThread);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
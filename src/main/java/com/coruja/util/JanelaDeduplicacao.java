@@ -0,0 +1,141 @@
+package com.coruja.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Janela de deduplicação em memória: informa se uma chave já foi vista nos últimos {@code janela}.
+ * <p>
+ * O tempo é dividido em baldes de largura {@code janela / baldes}; cada balde é um {@link LongHashSet}
+ * reaproveitado em anel. Uma chave é duplicada se estiver em algum balde ainda dentro da janela
+ * (na prática a janela efetiva fica entre {@code janela} e {@code janela} + uma largura de balde).
+ * Baldes antigos são esvaziados quando o anel volta a eles, então não há varredura nem remoção por chave.
+ * <p>
+ * A memória é limitada: cada balde guarda no máximo {@code maximoPorBalde} chaves. Acima disso as
+ * chaves novas deixam de ser registradas (a deduplicação falha a favor de gerar o alerta, nunca de perdê-lo).
+ */
+public final class JanelaDeduplicacao {
+
+    private static final long FNV_INICIO = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    private final boolean ativa;
+    private final long larguraBaldeMs;
+    private final int maximoPorBalde;
+    private final LongSupplier relogioMs;
+    private final LongHashSet[] baldes;
+    private final long[] idDoBalde;
+
+    private final AtomicLong suprimidas = new AtomicLong();
+    private final AtomicLong naoRegistradas = new AtomicLong();
+
+    public JanelaDeduplicacao(Duration janela, int baldes, int maximoPorBalde) {
+        this(janela, baldes, maximoPorBalde, System::currentTimeMillis);
+    }
+
+    /**
+     * @param janela         duração da janela; zero ou negativa desativa a deduplicação.
+     * @param baldes         quantidade de baldes que cobrem a janela (resolução da expiração).
+     * @param maximoPorBalde limite de chaves por balde.
+     * @param relogioMs      fonte do tempo em milissegundos.
+     */
+    public JanelaDeduplicacao(Duration janela, int baldes, int maximoPorBalde, LongSupplier relogioMs) {
+        if (baldes < 1 || maximoPorBalde < 1) {
+            throw new IllegalArgumentException("Quantidade de baldes e limite por balde devem ser positivos.");
+        }
+        this.ativa = janela.toMillis() > 0;
+        this.larguraBaldeMs = Math.max(1, janela.toMillis() / baldes);
+        this.maximoPorBalde = maximoPorBalde;
+        this.relogioMs = relogioMs;
+        int quantidade = ativa ? baldes + 1 : 0;
+        this.baldes = new LongHashSet[quantidade];
+        this.idDoBalde = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            this.baldes[i] = new LongHashSet();
+            this.idDoBalde[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Registra a chave e informa se ela é nova na janela.
+     *
+     * @return {@code false} se a chave já foi vista dentro da janela (leitura duplicada).
+     */
+    public synchronized boolean registrar(long chave) {
+        if (!ativa) {
+            return true;
+        }
+        if (chave == 0) {
+            chave = 1; // 0 é reservado no LongHashSet
+        }
+        long idAtual = relogioMs.getAsLong() / larguraBaldeMs;
+        int posicaoAtual = (int) Math.floorMod(idAtual, (long) baldes.length);
+        if (idDoBalde[posicaoAtual] != idAtual) {
+            baldes[posicaoAtual].clear();
+            idDoBalde[posicaoAtual] = idAtual;
+        }
+
+        long idMaisAntigo = idAtual - baldes.length + 1;
+        for (int i = 0; i < baldes.length; i++) {
+            if (idDoBalde[i] >= idMaisAntigo && baldes[i].contains(chave)) {
+                suprimidas.incrementAndGet();
+                return false;
+            }
+        }
+
+        LongHashSet balde = baldes[posicaoAtual];
+        if (balde.size() < maximoPorBalde) {
+            balde.add(chave);
+        } else {
+            naoRegistradas.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Retira a chave da janela (ex: o alerta dela não foi gravado), para que a próxima ocorrência seja nova.
+     */
+    public synchronized void remover(long chave) {
+        if (!ativa) {
+            return;
+        }
+        if (chave == 0) {
+            chave = 1;
+        }
+        for (LongHashSet balde : baldes) {
+            balde.remove(chave);
+        }
+    }
+
+    /**
+     * Total de leituras consideradas duplicadas desde o início.
+     */
+    public long suprimidas() {
+        return suprimidas.get();
+    }
+
+    /**
+     * Total de chaves que não couberam no balde (limite de memória atingido).
+     */
+    public long naoRegistradas() {
+        return naoRegistradas.get();
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a) das partes, com separador entre elas, para usar como chave.
+     * Partes nulas entram como vazias.
+     */
+    public static long chave(String... partes) {
+        long hash = FNV_INICIO;
+        for (String parte : partes) {
+            if (parte != null) {
+                for (int i = 0; i < parte.length(); i++) {
+                    hash = (hash ^ parte.charAt(i)) * FNV_PRIMO;
+                }
+            }
+            hash = (hash ^ 0x1F) * FNV_PRIMO;
+        }
+        return hash;
+    }
+}
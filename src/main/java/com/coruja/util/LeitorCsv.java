@@ -0,0 +1,119 @@
+package com.coruja.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) que devolve um registro por vez, sem carregar o arquivo inteiro.
+ * Aceita separador vírgula ou ponto e vírgula, campos entre aspas (com "" como aspas literais)
+ * e quebras de linha dentro de campos entre aspas. Linhas em branco são ignoradas.
+ */
+public final class LeitorCsv {
+
+    private final Reader reader;
+    private final char separador;
+    private final StringBuilder campo = new StringBuilder();
+    private int proximo = -2; // -2 = nada lido antecipadamente
+
+    public LeitorCsv(Reader reader, char separador) {
+        this.reader = reader;
+        this.separador = separador;
+    }
+
+    /**
+     * Lê o próximo registro, ou {@code null} no fim do arquivo.
+     */
+    public List<String> proximoRegistro() throws IOException {
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        boolean entreAspas = false;
+        boolean vazio = true;
+        int c;
+        while ((c = ler()) != -1) {
+            if (entreAspas) {
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        devolver(seguinte);
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && campo.isEmpty()) {
+                entreAspas = true;
+                vazio = false;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                vazio = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int seguinte = ler();
+                    if (seguinte != '\n') {
+                        devolver(seguinte);
+                    }
+                }
+                if (vazio && campo.isEmpty()) {
+                    continue; // linha em branco
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+                vazio = false;
+            }
+        }
+        if (vazio && campo.isEmpty()) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Escreve um campo no formato CSV, entre aspas somente quando necessário.
+     */
+    public static void escreverCampo(Appendable destino, String valor, char separador) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == separador || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            destino.append(valor);
+            return;
+        }
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                destino.append('"');
+            }
+            destino.append(c);
+        }
+        destino.append('"');
+    }
+
+    private int ler() throws IOException {
+        if (proximo != -2) {
+            int c = proximo;
+            proximo = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        proximo = c;
+    }
+}
@@ -0,0 +1,182 @@
+package com.coruja.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto de {@code long} com endereçamento aberto (sondagem linear) sobre um array primitivo.
+ * Não há boxing nem objetos por elemento, e a consulta não aloca memória.
+ * O valor zero é reservado para marcar posições vazias e não pode ser inserido.
+ * <p>
+ * Não é thread-safe: para leitura concorrente, publique uma cópia imutável
+ * (ver {@link #copia()}) em vez de alterar a instância compartilhada.
+ */
+public final class LongHashSet {
+
+    private static final int CAPACIDADE_MINIMA = 16;
+
+    private long[] tabela;
+    private int mascara;
+    private int tamanho;
+
+    public LongHashSet() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    /**
+     * @param capacidadeEsperada quantidade de elementos esperada; a tabela é dimensionada
+     *                           para manter o fator de carga em no máximo 50%.
+     */
+    public LongHashSet(int capacidadeEsperada) {
+        alocar(tamanhoDaTabela(capacidadeEsperada));
+    }
+
+    private LongHashSet(LongHashSet origem) {
+        this.tabela = origem.tabela.clone();
+        this.mascara = origem.mascara;
+        this.tamanho = origem.tamanho;
+    }
+
+    public boolean contains(long valor) {
+        if (valor == 0) {
+            return false;
+        }
+        long[] t = tabela;
+        int m = mascara;
+        int i = indice(valor, m);
+        long atual;
+        while ((atual = t[i]) != 0) {
+            if (atual == valor) {
+                return true;
+            }
+            i = (i + 1) & m;
+        }
+        return false;
+    }
+
+    public boolean add(long valor) {
+        if (valor == 0) {
+            throw new IllegalArgumentException("O valor 0 é reservado e não pode ser inserido.");
+        }
+        int i = indice(valor, mascara);
+        long atual;
+        while ((atual = tabela[i]) != 0) {
+            if (atual == valor) {
+                return false;
+            }
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = valor;
+        if (++tamanho * 2 > tabela.length) {
+            redimensionar(tabela.length * 2);
+        }
+        return true;
+    }
+
+    public boolean remove(long valor) {
+        if (valor == 0) {
+            return false;
+        }
+        int i = indice(valor, mascara);
+        long atual;
+        while ((atual = tabela[i]) != 0) {
+            if (atual == valor) {
+                removerNaPosicao(i);
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    /**
+     * Esvazia o conjunto mantendo a capacidade já alocada.
+     */
+    public void clear() {
+        if (tamanho > 0) {
+            Arrays.fill(tabela, 0L);
+            tamanho = 0;
+        }
+    }
+
+    public void forEach(LongConsumer acao) {
+        for (long valor : tabela) {
+            if (valor != 0) {
+                acao.accept(valor);
+            }
+        }
+    }
+
+    /**
+     * Cria uma cópia independente, usada para o padrão copy-on-write.
+     */
+    public LongHashSet copia() {
+        return new LongHashSet(this);
+    }
+
+    // Remoção com deslocamento para trás: mantém as cadeias de sondagem sem usar "tombstones"
+    private void removerNaPosicao(int livre) {
+        tamanho--;
+        int i = livre;
+        while (true) {
+            i = (i + 1) & mascara;
+            long valor = tabela[i];
+            if (valor == 0) {
+                break;
+            }
+            int ideal = indice(valor, mascara);
+            // Move o elemento se a posição livre estiver entre a posição ideal dele e a atual
+            if (((i - ideal) & mascara) >= ((i - livre) & mascara)) {
+                tabela[livre] = valor;
+                livre = i;
+            }
+        }
+        tabela[livre] = 0;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        long[] antiga = tabela;
+        alocar(novaCapacidade);
+        for (long valor : antiga) {
+            if (valor != 0) {
+                int i = indice(valor, mascara);
+                while (tabela[i] != 0) {
+                    i = (i + 1) & mascara;
+                }
+                tabela[i] = valor;
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        this.tabela = new long[capacidade];
+        this.mascara = capacidade - 1;
+    }
+
+    private static int tamanhoDaTabela(int capacidadeEsperada) {
+        long desejado = Math.max(CAPACIDADE_MINIMA, (long) capacidadeEsperada * 2);
+        if (desejado > (1 << 30)) {
+            throw new IllegalArgumentException("Capacidade muito grande: " + capacidadeEsperada);
+        }
+        return Integer.highestOneBit((int) desejado - 1) << 1;
+    }
+
+    // Finalizador do MurmurHash3: espalha os bits antes de aplicar a máscara
+    private static int indice(long valor, int mascara) {
+        long h = valor;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+}
@@ -0,0 +1,83 @@
+package com.coruja.util;
+
+/**
+ * Codifica placas brasileiras (padrão antigo LLLNNNN e Mercosul LLLNLNN) em um {@code long}.
+ * Cada um dos 7 caracteres alfanuméricos ocupa 6 bits (42 bits no total) e o bit 42 é sempre
+ * ligado, de modo que nenhuma placa válida é codificada como zero.
+ * Os métodos não alocam objetos e podem ser usados direto sobre os bytes da mensagem do radar.
+ */
+public final class PlacaCodec {
+
+    /** Valor devolvido quando a entrada não é uma placa de 7 caracteres alfanuméricos. */
+    public static final long INVALIDA = -1L;
+
+    public static final int TAMANHO_PLACA = 7;
+
+    private static final int BITS_POR_CARACTERE = 6;
+    private static final long MARCADOR = 1L << (TAMANHO_PLACA * BITS_POR_CARACTERE);
+
+    private PlacaCodec() {
+    }
+
+    public static long codificar(CharSequence placa) {
+        if (placa == null || placa.length() != TAMANHO_PLACA) {
+            return INVALIDA;
+        }
+        long codigo = MARCADOR;
+        for (int i = 0; i < TAMANHO_PLACA; i++) {
+            int valor = valorDoCaractere(placa.charAt(i));
+            if (valor < 0) {
+                return INVALIDA;
+            }
+            codigo |= (long) valor << (i * BITS_POR_CARACTERE);
+        }
+        return codigo;
+    }
+
+    /**
+     * Codifica a placa contida em {@code dados[inicio, fim)} (ASCII), sem criar uma String.
+     */
+    public static long codificar(byte[] dados, int inicio, int fim) {
+        if (dados == null || inicio < 0 || fim > dados.length || fim - inicio != TAMANHO_PLACA) {
+            return INVALIDA;
+        }
+        long codigo = MARCADOR;
+        for (int i = 0; i < TAMANHO_PLACA; i++) {
+            int valor = valorDoCaractere((char) (dados[inicio + i] & 0xFF));
+            if (valor < 0) {
+                return INVALIDA;
+            }
+            codigo |= (long) valor << (i * BITS_POR_CARACTERE);
+        }
+        return codigo;
+    }
+
+    public static String decodificar(long codigo) {
+        if ((codigo & ~(MARCADOR | (MARCADOR - 1))) != 0 || (codigo & MARCADOR) == 0) {
+            throw new IllegalArgumentException("Código de placa inválido: " + codigo);
+        }
+        char[] placa = new char[TAMANHO_PLACA];
+        for (int i = 0; i < TAMANHO_PLACA; i++) {
+            int valor = (int) (codigo >>> (i * BITS_POR_CARACTERE)) & 0x3F;
+            if (valor > 35) {
+                throw new IllegalArgumentException("Código de placa inválido: " + codigo);
+            }
+            placa[i] = valor < 10 ? (char) ('0' + valor) : (char) ('A' + valor - 10);
+        }
+        return new String(placa);
+    }
+
+    // 0-9 -> 0..9, A-Z (ou a-z) -> 10..35; qualquer outro caractere é inválido
+    private static int valorDoCaractere(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,207 @@
+package com.coruja.util;
+
+import com.coruja.dto.RadarMensagem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Leitura direta do corpo (byte[]) das mensagens de radar, sem regex nem cópias intermediárias.
+ * <p>
+ * Layouts suportados:
+ * <ul>
+ *     <li>RONDON: {@code CONCESSIONARIA|DATA|HORA|PLACA|RODOVIA|KM|SENTIDO}</li>
+ *     <li>CART, EIXO, ENTREVIAS e demais: {@code CONCESSIONARIA|DATA|HORA|PLACA|PRACA|RODOVIA|KM|SENTIDO}</li>
+ * </ul>
+ * O caminho comum (placa fora da lista) usa apenas {@link #codigoDaPlaca(byte[])}, que percorre
+ * os bytes até o 4º campo e não aloca nada. A mensagem completa só é interpretada em {@link #interpretar(byte[])}
+ * quando há uma placa monitorada.
+ */
+public final class RadarMensagemParser {
+
+    public static final byte SEPARADOR = '|';
+
+    public static final int CAMPO_CONCESSIONARIA = 0;
+    public static final int CAMPO_DATA = 1;
+    public static final int CAMPO_HORA = 2;
+    public static final int CAMPO_PLACA = 3;
+
+    private static final int CAMPOS_MINIMOS = 4;
+    private static final int CAMPOS_RONDON = 7;
+    private static final int CAMPOS_PADRAO = 8;
+
+    private static final byte[] RONDON = "RONDON".getBytes(StandardCharsets.US_ASCII);
+    private static final String NAO_INFORMADO = "N/A";
+
+    private RadarMensagemParser() {
+    }
+
+    /**
+     * Devolve o código ({@link PlacaCodec}) da placa da mensagem, ou {@link PlacaCodec#INVALIDA}
+     * se a mensagem for curta demais ou a placa estiver fora do padrão.
+     */
+    public static long codigoDaPlaca(byte[] dados) {
+        long limites = limitesDoCampo(dados, CAMPO_PLACA);
+        if (limites < 0) {
+            return PlacaCodec.INVALIDA;
+        }
+        return PlacaCodec.codificar(dados, inicio(limites), fim(limites));
+    }
+
+    /**
+     * Extrai a placa como texto; usado apenas para placas que não cabem no {@link PlacaCodec}.
+     *
+     * @return a placa, ou {@code null} se a mensagem tiver menos de 4 campos.
+     */
+    public static String placa(byte[] dados) {
+        long limites = limitesDoCampo(dados, CAMPO_PLACA);
+        return limites < 0 ? null : texto(dados, inicio(limites), fim(limites));
+    }
+
+    /**
+     * Interpreta a mensagem completa.
+     *
+     * @throws IllegalArgumentException se a mensagem tiver menos de 4 campos.
+     * @throws DateTimeParseException   se data ou hora forem inválidas.
+     */
+    public static RadarMensagem interpretar(byte[] dados) {
+        int[] inicios = new int[CAMPOS_PADRAO + 1];
+        int campos = separarCampos(dados, inicios);
+        if (campos < CAMPOS_MINIMOS) {
+            throw new IllegalArgumentException("Mensagem de radar com formato muito curto: "
+                    + new String(dados, StandardCharsets.UTF_8));
+        }
+
+        String praca = NAO_INFORMADO, rodovia = NAO_INFORMADO, km = NAO_INFORMADO, sentido = NAO_INFORMADO;
+        if (igualIgnorandoCaixa(dados, inicios[0], inicios[1] - 1, RONDON)) {
+            if (campos >= CAMPOS_RONDON) {
+                rodovia = campo(dados, inicios, 4);
+                km = campo(dados, inicios, 5);
+                sentido = campo(dados, inicios, 6);
+            }
+        } else if (campos >= CAMPOS_PADRAO) {
+            praca = campo(dados, inicios, 4);
+            rodovia = campo(dados, inicios, 5);
+            km = campo(dados, inicios, 6);
+            sentido = campo(dados, inicios, 7);
+        }
+
+        return RadarMensagem.builder()
+                .concessionaria(campo(dados, inicios, CAMPO_CONCESSIONARIA).toUpperCase())
+                .data(lerData(dados, inicios[CAMPO_DATA], inicios[CAMPO_DATA + 1] - 1))
+                .hora(lerHora(dados, inicios[CAMPO_HORA], inicios[CAMPO_HORA + 1] - 1))
+                .placa(campo(dados, inicios, CAMPO_PLACA))
+                .praca(praca).rodovia(rodovia).km(km).sentido(sentido)
+                .build();
+    }
+
+    /**
+     * Localiza o campo {@code indice} e devolve {@code (inicio << 32) | fim}, ou -1 se ele não existir.
+     */
+    private static long limitesDoCampo(byte[] dados, int indice) {
+        int inicio = 0;
+        int campo = 0;
+        for (int i = 0; i < dados.length; i++) {
+            if (dados[i] == SEPARADOR) {
+                if (campo == indice) {
+                    return ((long) inicio << 32) | i;
+                }
+                campo++;
+                inicio = i + 1;
+            }
+        }
+        return campo == indice ? ((long) inicio << 32) | dados.length : -1;
+    }
+
+    private static int inicio(long limites) {
+        return (int) (limites >>> 32);
+    }
+
+    private static int fim(long limites) {
+        return (int) limites;
+    }
+
+    /**
+     * Preenche {@code inicios[k]} com o início do campo k e {@code inicios[campos]} com {@code length + 1},
+     * de forma que o campo k ocupa {@code [inicios[k], inicios[k + 1] - 1)}. Campos além da capacidade são ignorados.
+     */
+    private static int separarCampos(byte[] dados, int[] inicios) {
+        int maximo = inicios.length - 1;
+        int campos = 0;
+        inicios[0] = 0;
+        for (int i = 0; i < dados.length && campos < maximo; i++) {
+            if (dados[i] == SEPARADOR) {
+                inicios[++campos] = i + 1;
+            }
+        }
+        if (campos < maximo) {
+            inicios[++campos] = dados.length + 1;
+        }
+        return campos;
+    }
+
+    private static String campo(byte[] dados, int[] inicios, int indice) {
+        return texto(dados, inicios[indice], inicios[indice + 1] - 1);
+    }
+
+    private static String texto(byte[] dados, int inicio, int fim) {
+        return new String(dados, inicio, fim - inicio, StandardCharsets.UTF_8);
+    }
+
+    private static boolean igualIgnorandoCaixa(byte[] dados, int inicio, int fim, byte[] esperado) {
+        if (fim - inicio != esperado.length) {
+            return false;
+        }
+        for (int i = 0; i < esperado.length; i++) {
+            if ((dados[inicio + i] & 0xDF) != esperado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Caminho rápido para "yyyy-MM-dd"; outros formatos seguem para LocalDate.parse (e sua mensagem de erro)
+    private static LocalDate lerData(byte[] dados, int inicio, int fim) {
+        if (fim - inicio == 10 && dados[inicio + 4] == '-' && dados[inicio + 7] == '-') {
+            int ano = numero(dados, inicio, 4);
+            int mes = numero(dados, inicio + 5, 2);
+            int dia = numero(dados, inicio + 8, 2);
+            if (ano >= 0 && mes >= 0 && dia >= 0) {
+                try {
+                    return LocalDate.of(ano, mes, dia);
+                } catch (DateTimeException e) {
+                    // Cai no parse padrão para produzir a mesma exceção de antes
+                }
+            }
+        }
+        return LocalDate.parse(texto(dados, inicio, fim));
+    }
+
+    // Caminho rápido para "HH:mm:ss"; "HH:mm" e frações de segundo seguem para LocalTime.parse
+    private static LocalTime lerHora(byte[] dados, int inicio, int fim) {
+        if (fim - inicio == 8 && dados[inicio + 2] == ':' && dados[inicio + 5] == ':') {
+            int hora = numero(dados, inicio, 2);
+            int minuto = numero(dados, inicio + 3, 2);
+            int segundo = numero(dados, inicio + 6, 2);
+            if (hora >= 0 && hora < 24 && minuto >= 0 && minuto < 60 && segundo >= 0 && segundo < 60) {
+                return LocalTime.of(hora, minuto, segundo);
+            }
+        }
+        return LocalTime.parse(texto(dados, inicio, fim));
+    }
+
+    private static int numero(byte[] dados, int inicio, int digitos) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + digitos; i++) {
+            int d = dados[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            valor = valor * 10 + d;
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,113 @@
+package com.coruja.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template de texto compilado uma única vez: o texto é dividido em trechos fixos e marcadores
+ * {@code {nome}}, e cada marcador já fica resolvido para a posição do valor no array passado a
+ * {@link #renderizar}. A renderização só concatena, sem procurar marcadores nem formatar.
+ * <p>
+ * Os trechos fixos são copiados como estão (podem conter tags HTML); os valores devem chegar já
+ * escapados, ver {@link #escaparHtml}.
+ */
+public final class TemplateMensagem {
+
+    private final String[] literais;  // literais[i] vem antes de valores[indices[i]]
+    private final int[] indices;
+    private final String finalFixo;
+    private final int tamanhoEstimado;
+
+    private TemplateMensagem(String[] literais, int[] indices, String finalFixo) {
+        this.literais = literais;
+        this.indices = indices;
+        this.finalFixo = finalFixo;
+        int tamanho = finalFixo.length();
+        for (String literal : literais) {
+            tamanho += literal.length();
+        }
+        this.tamanhoEstimado = tamanho + indices.length * 16;
+    }
+
+    /**
+     * Compila o template.
+     *
+     * @param texto     texto com marcadores {@code {nome}}.
+     * @param variaveis nomes aceitos; a posição de cada nome é o índice do valor na renderização.
+     * @throws IllegalArgumentException se o texto usar um marcador que não está em {@code variaveis}.
+     */
+    public static TemplateMensagem compilar(String texto, List<String> variaveis) {
+        List<String> literais = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        int i = 0;
+        while (i < texto.length()) {
+            char c = texto.charAt(i);
+            int fim = c == '{' ? texto.indexOf('}', i + 1) : -1;
+            if (fim < 0) {
+                atual.append(c);
+                i++;
+                continue;
+            }
+            String nome = texto.substring(i + 1, fim).trim();
+            int indice = variaveis.indexOf(nome);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Marcador desconhecido no template: {" + nome + "}. Aceitos: " + variaveis);
+            }
+            literais.add(atual.toString());
+            indices.add(indice);
+            atual.setLength(0);
+            i = fim + 1;
+        }
+        return new TemplateMensagem(literais.toArray(String[]::new),
+                indices.stream().mapToInt(Integer::intValue).toArray(), atual.toString());
+    }
+
+    /**
+     * Acrescenta o texto renderizado ao destino. Valores nulos são tratados como vazios.
+     */
+    public void renderizar(String[] valores, StringBuilder destino) {
+        destino.ensureCapacity(destino.length() + tamanhoEstimado);
+        for (int i = 0; i < indices.length; i++) {
+            destino.append(literais[i]);
+            String valor = valores[indices[i]];
+            if (valor != null) {
+                destino.append(valor);
+            }
+        }
+        destino.append(finalFixo);
+    }
+
+    /**
+     * Escapa os caracteres reservados do modo HTML da API do Telegram ({@code & < > "}).
+     * Devolve a própria String quando não há nada a escapar.
+     */
+    public static String escaparHtml(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        int i = 0;
+        while (i < valor.length() && !reservadoHtml(valor.charAt(i))) {
+            i++;
+        }
+        if (i == valor.length()) {
+            return valor;
+        }
+        StringBuilder escapado = new StringBuilder(valor.length() + 16).append(valor, 0, i);
+        for (; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '&' -> escapado.append("&amp;");
+                case '<' -> escapado.append("&lt;");
+                case '>' -> escapado.append("&gt;");
+                case '"' -> escapado.append("&quot;");
+                default -> escapado.append(c);
+            }
+        }
+        return escapado.toString();
+    }
+
+    private static boolean reservadoHtml(char c) {
+        return c == '&' || c == '<' || c == '>' || c == '"';
+    }
+}
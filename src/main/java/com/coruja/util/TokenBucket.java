@@ -0,0 +1,61 @@
+package com.coruja.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas para limitar taxa: comporta até {@code capacidade} fichas e repõe
+ * {@code fichasPorSegundo} continuamente. Cada envio consome uma ficha.
+ */
+public class TokenBucket {
+
+    private final double capacidade;
+    private final double fichasPorNano;
+    private final LongSupplier relogioNanos;
+    private double fichas;
+    private long ultimaReposicao;
+
+    public TokenBucket(double capacidade, double fichasPorSegundo) {
+        this(capacidade, fichasPorSegundo, System::nanoTime);
+    }
+
+    /**
+     * @param relogioNanos fonte de tempo em nanossegundos (substituível em testes).
+     */
+    public TokenBucket(double capacidade, double fichasPorSegundo, LongSupplier relogioNanos) {
+        this.capacidade = capacidade;
+        this.fichasPorNano = fichasPorSegundo / 1_000_000_000d;
+        this.relogioNanos = relogioNanos;
+        this.fichas = capacidade;
+        this.ultimaReposicao = relogioNanos.getAsLong();
+    }
+
+    /**
+     * Indica se o balde está cheio, ou seja, se ficou sem uso tempo suficiente para repor todas as fichas.
+     */
+    public synchronized boolean cheio() {
+        repor();
+        return fichas >= capacidade;
+    }
+
+    public synchronized boolean tentarConsumir() {
+        repor();
+        if (fichas >= 1) {
+            fichas -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Devolve uma ficha consumida sem uso (ex.: outro limite impediu o envio).
+     */
+    public synchronized void devolver() {
+        fichas = Math.min(capacidade, fichas + 1);
+    }
+
+    private void repor() {
+        long agora = relogioNanos.getAsLong();
+        fichas = Math.min(capacidade, fichas + (agora - ultimaReposicao) * fichasPorNano);
+        ultimaReposicao = agora;
+    }
+}
@@ -0,0 +1,4 @@
+-- V5__Alertas_sequence_pooled.sql
+-- Permite INSERTs em lote de alertas: o Hibernate passa a reservar ids em blocos de 50
+-- (otimizador pooled), então a sequence precisa ter o mesmo incremento do allocationSize.
+ALTER SEQUENCE alertas_passagens_id_seq INCREMENT BY 50;
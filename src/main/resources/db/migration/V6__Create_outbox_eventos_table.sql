@@ -0,0 +1,18 @@
+-- V6__Create_outbox_eventos_table.sql
+-- Outbox transacional: notificações do Telegram e eventos alerta.confirmado são gravados
+-- na mesma transação do alerta e entregues depois pelo OutboxRelay (entrega "at-least-once").
+
+CREATE TABLE outbox_eventos (
+    id BIGSERIAL PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    destino VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL DEFAULT now(),
+    criado_em TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Ids reservados em blocos (allocationSize = 50) para permitir INSERTs em lote
+ALTER SEQUENCE outbox_eventos_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_outbox_eventos_proxima_tentativa ON outbox_eventos (proxima_tentativa, id);
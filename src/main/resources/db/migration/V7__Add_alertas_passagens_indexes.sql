@@ -0,0 +1,12 @@
+-- V7__Add_alertas_passagens_indexes.sql
+-- Índices para o histórico de alertas paginado por cursor (timestamp_alerta, id),
+-- para a busca por placa e para a FK usada no ON DELETE CASCADE.
+
+CREATE INDEX IF NOT EXISTS idx_alertas_passagens_timestamp_id
+    ON alertas_passagens (timestamp_alerta DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_alertas_passagens_placa_timestamp
+    ON alertas_passagens (placa, timestamp_alerta DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_alertas_passagens_placa_monitorada_id
+    ON alertas_passagens (placa_monitorada_id);
@@ -0,0 +1,65 @@
+-- V8__Partition_alertas_passagens.sql
+-- Converte alertas_passagens em tabela particionada por mês (RANGE em timestamp_alerta).
+-- Consultas por período recente leem só as partições envolvidas, e a retenção passa a ser
+-- DETACH/DROP de partições antigas (ParticionamentoAlertasJob) em vez de um DELETE massivo.
+-- A FK com ON DELETE CASCADE para placas_monitoradas é mantida na tabela particionada.
+
+-- A sequence dos ids pertence à coluna da tabela antiga; desvincula para não ser apagada junto
+ALTER SEQUENCE alertas_passagens_id_seq OWNED BY NONE;
+
+ALTER TABLE alertas_passagens RENAME TO alertas_passagens_legado;
+
+CREATE TABLE alertas_passagens (
+    id BIGINT NOT NULL DEFAULT nextval('alertas_passagens_id_seq'),
+    concessionaria VARCHAR(255),
+    data DATE,
+    hora TIME,
+    placa VARCHAR(255),
+    praca VARCHAR(255),
+    rodovia VARCHAR(255),
+    km VARCHAR(255),
+    sentido VARCHAR(255),
+    timestamp_alerta TIMESTAMP NOT NULL,
+    placa_monitorada_id BIGINT NOT NULL,
+    -- Em tabelas particionadas a chave primária precisa conter a chave de partição
+    CONSTRAINT pk_alertas_passagens PRIMARY KEY (id, timestamp_alerta),
+    CONSTRAINT fk_alertas_passagens_placa_monitorada
+        FOREIGN KEY (placa_monitorada_id)
+        REFERENCES placas_monitoradas(id)
+        ON DELETE CASCADE
+) PARTITION BY RANGE (timestamp_alerta);
+
+ALTER SEQUENCE alertas_passagens_id_seq OWNED BY alertas_passagens.id;
+
+-- Uma partição por mês, do alerta mais antigo existente até 3 meses à frente
+DO $$
+DECLARE
+    mes DATE := date_trunc('month', COALESCE((SELECT min(timestamp_alerta) FROM alertas_passagens_legado), now()))::date;
+    ultimo DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE mes <= ultimo LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF alertas_passagens FOR VALUES FROM (%L) TO (%L)',
+                       'alertas_passagens_' || to_char(mes, 'YYYY_MM'), mes, (mes + INTERVAL '1 month')::date);
+        mes := (mes + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Recebe eventuais alertas fora das partições mensais (ex.: relógio adiantado)
+CREATE TABLE alertas_passagens_default PARTITION OF alertas_passagens DEFAULT;
+
+INSERT INTO alertas_passagens (id, concessionaria, data, hora, placa, praca, rodovia, km, sentido,
+                               timestamp_alerta, placa_monitorada_id)
+SELECT id, concessionaria, data, hora, placa, praca, rodovia, km, sentido, timestamp_alerta, placa_monitorada_id
+FROM alertas_passagens_legado;
+
+DROP TABLE alertas_passagens_legado;
+
+-- Índices da V7, recriados na tabela particionada (propagados para cada partição)
+CREATE INDEX idx_alertas_passagens_timestamp_id
+    ON alertas_passagens (timestamp_alerta DESC, id DESC);
+
+CREATE INDEX idx_alertas_passagens_placa_timestamp
+    ON alertas_passagens (placa, timestamp_alerta DESC, id DESC);
+
+CREATE INDEX idx_alertas_passagens_placa_monitorada_id
+    ON alertas_passagens (placa_monitorada_id);
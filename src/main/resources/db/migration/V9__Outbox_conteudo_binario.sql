@@ -0,0 +1,8 @@
+-- V9__Outbox_conteudo_binario.sql
+-- Eventos alerta.confirmado passam a guardar o corpo já serializado (JSON, CBOR ou Smile) em bytes,
+-- com o content-type, e são publicados sem nova conversão. O payload em texto fica para o Telegram
+-- e para os eventos gravados antes desta versão.
+
+ALTER TABLE outbox_eventos ADD COLUMN conteudo BYTEA;
+ALTER TABLE outbox_eventos ADD COLUMN tipo_conteudo VARCHAR(50);
+ALTER TABLE outbox_eventos ALTER COLUMN payload DROP NOT NULL;
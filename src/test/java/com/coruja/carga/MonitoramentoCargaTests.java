@@ -0,0 +1,448 @@
+package com.coruja.carga;
+
+import com.coruja.config.RabbitMQConfig;
+import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.entities.EventoOutbox;
+import com.coruja.entities.PlacaMonitorada;
+import com.coruja.repositories.EventoOutboxRepository;
+import com.coruja.repositories.PlacaMonitoradaRepository;
+import com.coruja.services.ConversorAlertaConfirmado;
+import com.coruja.services.IndicePlacasAtivas;
+import com.coruja.services.MonitoramentoService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Teste de carga de ponta a ponta: injeta leituras de radar sintéticas a uma taxa fixa e mede a latência
+ * entre a chegada da leitura e a publicação do alerta.confirmado, passando por índice, banco, outbox e relay.
+ * <p>
+ * Fica fora do build padrão (tag "carga"); rode com {@code mvn -Pcarga test}. Parâmetros (-D):
+ * {@code carga.taxa} (mensagens/s), {@code carga.duracao-segundos}, {@code carga.placas-monitoradas},
+ * {@code carga.percentual-acertos} (leituras de placas monitoradas, em %), {@code carga.espera-final-segundos}.
+ * <p>
+ * Substitutos locais, sem Docker:
+ * <ul>
+ *     <li>RabbitMQ: fila em memória consumida em lotes como o radarBatchContainerFactory
+ *     (batch-size / receive-timeout-ms), chamando {@link MonitoramentoService#onRadarBatch}; o RabbitTemplate
+ *     é um mock que registra a publicação do alerta.confirmado;</li>
+ *     <li>PostgreSQL: H2 em modo PostgreSQL (placas e alertas). A tabela outbox_eventos fica em memória,
+ *     porque a reserva de lote usa UPDATE ... RETURNING / SKIP LOCKED, que o H2 não tem;</li>
+ *     <li>api.telegram.org: servidor HTTP local que responde 200 a tudo. Os limites de taxa do Telegram são
+ *     elevados no teste para medir a capacidade do serviço, não a cota do bot.</li>
+ * </ul>
+ * A latência é medida a partir do instante planejado de envio de cada leitura (não do envio efetivo),
+ * para que atrasos do gerador não escondam a fila acumulada. O relatório (log e target/carga/relatorio.txt)
+ * lista o que esses substitutos deixam de fora.
+ */
+@Tag("carga")
+@ActiveProfiles("carga")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.bootstrap.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "telegram.bot.token=carga",
+        "telegram.chat.id=-1000",
+        "telegram.dispatcher.global-por-segundo=${carga.telegram-por-segundo:100000}",
+        "telegram.dispatcher.grupo-por-minuto=${carga.telegram-grupo-por-minuto:6000000}",
+        "telegram.dispatcher.privado-por-segundo=${carga.telegram-por-segundo:100000}",
+        "telegram.dispatcher.capacidade=1000000",
+        "monitoramento.alertas.particionamento.habilitado=false",
+        "monitoramento.alertas.dedup.janela-segundos=${carga.dedup-segundos:0}",
+        "monitoramento.alertas.dedup.reentrega-segundos=${carga.dedup-segundos:0}",
+        "monitoramento.outbox.intervalo-ms=${carga.outbox-intervalo-ms:500}"
+})
+class MonitoramentoCargaTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitoramentoCargaTests.class);
+
+    private static final int TAXA = Integer.getInteger("carga.taxa", 2000);
+    private static final int DURACAO_SEGUNDOS = Integer.getInteger("carga.duracao-segundos", 30);
+    private static final int PLACAS_MONITORADAS = Integer.getInteger("carga.placas-monitoradas", 10_000);
+    private static final int PERCENTUAL_ACERTOS = Integer.getInteger("carga.percentual-acertos", 1);
+    private static final int ESPERA_FINAL_SEGUNDOS = Integer.getInteger("carga.espera-final-segundos", 120);
+    private static final int TAMANHO_LOTE = Integer.getInteger("monitoramento.radar.batch-size", 100);
+    private static final long TIMEOUT_LOTE_MS = Long.getLong("monitoramento.radar.receive-timeout-ms", 200);
+
+    private static final String[] CONCESSIONARIAS = {"RONDON", "CART", "EIXO", "ENTREVIAS"};
+    private static final String[] RODOVIAS = {"SP-225", "SP-270", "SP-280", "SP-300", "SP-330"};
+    private static final String[] PRACAS = {"PRACA ASSIS", "PRACA OURINHOS", "PRACA BAURU", "PRACA ITU"};
+    private static final String[] SENTIDOS = {"NORTE", "SUL", "LESTE", "OESTE"};
+
+    private static HttpServer telegram;
+    private static final AtomicLong requisicoesTelegram = new AtomicLong();
+
+    // Instante planejado de envio (nanoTime) de cada leitura de placa monitorada, pela chave placa|data|hora
+    private final Map<String, Long> enviadas = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> latenciasNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicLong ultimaConfirmacao = new AtomicLong();
+
+    @Autowired
+    private MonitoramentoService monitoramentoService;
+
+    @Autowired
+    private PlacaMonitoradaRepository placaRepository;
+
+    @Autowired
+    private IndicePlacasAtivas indicePlacas;
+
+    @Autowired
+    private ConversorAlertaConfirmado conversorAlerta;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @DynamicPropertySource
+    static void telegramLocal(DynamicPropertyRegistry registry) throws IOException {
+        if (telegram == null) {
+            telegram = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            telegram.createContext("/", troca -> {
+                requisicoesTelegram.incrementAndGet();
+                troca.getRequestBody().readAllBytes();
+                byte[] resposta = "{\"ok\":true,\"result\":[]}".getBytes(StandardCharsets.UTF_8);
+                troca.getResponseHeaders().add("Content-Type", "application/json");
+                troca.sendResponseHeaders(200, resposta.length);
+                try (OutputStream corpo = troca.getResponseBody()) {
+                    corpo.write(resposta);
+                }
+            });
+            telegram.setExecutor(Executors.newFixedThreadPool(8));
+            telegram.start();
+        }
+        registry.add("telegram.api.url", () -> "http://127.0.0.1:" + telegram.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void pararTelegram() {
+        if (telegram != null) {
+            telegram.stop(0);
+        }
+    }
+
+    @TestConfiguration
+    static class OutboxLocal {
+        @Bean
+        @Primary
+        EventoOutboxRepository outboxEmMemoria() {
+            return Mockito.mock(EventoOutboxRepository.class, AdditionalAnswers.delegatesTo(new OutboxEmMemoria()));
+        }
+    }
+
+    @Test
+    void cargaDeLeiturasDeRadar() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> monitoradas = cadastrarPlacas(random);
+        registrarConfirmacoes();
+
+        BlockingQueue<Message> fila = new LinkedBlockingQueue<>();
+        ConsumidorEmLote consumidor = new ConsumidorEmLote(fila);
+        consumidor.start();
+
+        long total = (long) TAXA * DURACAO_SEGUNDOS;
+        long intervaloNanos = TimeUnit.SECONDS.toNanos(1) / TAXA;
+        LocalDate dataBase = LocalDate.now();
+        long acertos = 0;
+        long inicio = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long planejado = inicio + i * intervaloNanos;
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            // data/hora derivadas do sequencial: cada leitura tem uma chave única para casar com a confirmação
+            LocalDate data = dataBase.minusDays(i / 86_400);
+            LocalTime hora = LocalTime.ofSecondOfDay(i % 86_400);
+            boolean acerto = random.nextInt(100) < PERCENTUAL_ACERTOS;
+            String placa = acerto ? monitoradas.get(random.nextInt(monitoradas.size())) : placaAleatoria(random);
+            if (acerto) {
+                enviadas.put(chave(placa, data, hora), planejado);
+                acertos++;
+            }
+            fila.add(new Message(mensagemRadar(random, placa, data, hora), new MessageProperties()));
+        }
+        long fimEnvio = System.nanoTime();
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_FINAL_SEGUNDOS);
+        while ((!fila.isEmpty() || latenciasNanos.size() < acertos) && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        consumidor.parar();
+
+        String relatorio = relatorio(total, acertos, inicio, fimEnvio, consumidor);
+        logger.info("\n{}", relatorio);
+        Path arquivo = Path.of("target", "carga", "relatorio.txt");
+        Files.createDirectories(arquivo.getParent());
+        Files.writeString(arquivo, relatorio);
+
+        assertThat(latenciasNanos).as("alertas confirmados").hasSize((int) acertos);
+    }
+
+    private List<String> cadastrarPlacas(SplittableRandom random) {
+        Set<String> placas = new HashSet<>();
+        while (placas.size() < PLACAS_MONITORADAS) {
+            placas.add(placaAleatoria(random));
+        }
+        List<PlacaMonitorada> entidades = new ArrayList<>(placas.size());
+        for (String placa : placas) {
+            PlacaMonitorada entidade = new PlacaMonitorada();
+            entidade.setPlaca(placa);
+            entidade.setMarcaModelo("VW/GOL 1.0");
+            entidade.setCor("PRATA");
+            entidade.setMotivo("Roubo/Furto");
+            entidade.setInteressado("Carga");
+            entidade.setStatusAtivo(true);
+            entidades.add(entidade);
+        }
+        placaRepository.saveAll(entidades);
+        indicePlacas.recarregar();
+        return new ArrayList<>(placas);
+    }
+
+    private void registrarConfirmacoes() {
+        doAnswer(invocacao -> {
+            long agora = System.nanoTime();
+            AlertaPassagemDTO alerta = conversorAlerta.ler(invocacao.getArgument(2, Message.class));
+            Long planejado = enviadas.remove(chave(alerta.getPlaca(), alerta.getData(), alerta.getHora()));
+            if (planejado != null) {
+                latenciasNanos.add(agora - planejado);
+                ultimaConfirmacao.accumulateAndGet(agora, Math::max);
+            }
+            // Confirmação do broker (publisher confirm)
+            invocacao.getArgument(3, CorrelationData.class).getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.ALERTAS_ROUTING_KEY),
+                any(Message.class), any(CorrelationData.class));
+        doAnswer(invocacao -> null).when(rabbitTemplate).convertAndSend(anyString(), eq(RabbitMQConfig.WATCHLIST_ROUTING_KEY), any(Object.class));
+    }
+
+    private String relatorio(long total, long acertos, long inicio, long fimEnvio, ConsumidorEmLote consumidor) {
+        long[] latencias = latenciasNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        double segundosEnvio = (fimEnvio - inicio) / 1e9;
+        double segundosConsumo = (consumidor.ultimoConsumo.get() - inicio) / 1e9;
+        double segundosAlertas = (ultimaConfirmacao.get() - inicio) / 1e9;
+
+        StringBuilder texto = new StringBuilder()
+                .append("=== Teste de carga: monitoramento de radares ===\n")
+                .append(String.format("Taxa alvo: %d msg/s por %d s (%d mensagens, %d placas monitoradas, %d%% de acertos)%n",
+                        TAXA, DURACAO_SEGUNDOS, total, PLACAS_MONITORADAS, PERCENTUAL_ACERTOS))
+                .append(String.format("Envio: %.1f s (%.0f msg/s efetivos)%n", segundosEnvio, total / segundosEnvio))
+                .append(String.format("Consumo: %d mensagens em %d lotes, %.0f msg/s sustentados%n",
+                        consumidor.consumidas.get(), consumidor.lotes.get(), consumidor.consumidas.get() / segundosConsumo))
+                .append(String.format("Alertas confirmados: %d de %d (%.1f alertas/s)%n",
+                        latencias.length, acertos, latencias.length / Math.max(segundosAlertas, 1e-9)))
+                .append(String.format("Requisições ao Telegram (stub): %d%n", requisicoesTelegram.get()));
+        if (latencias.length > 0) {
+            texto.append(String.format("Latência leitura -> alerta.confirmado (ms): p50=%.1f p99=%.1f p999=%.1f max=%.1f%n",
+                    percentil(latencias, 0.50), percentil(latencias, 0.99), percentil(latencias, 0.999),
+                    latencias[latencias.length - 1] / 1e6));
+        }
+        texto.append("""
+                Limitações deste ambiente (números não representam produção):
+                - banco H2 em memória no lugar do PostgreSQL: sem alertas_passagens particionada por mês
+                  e sem reWriteBatchedInserts do driver JDBC nas gravações em lote;
+                - outbox em memória: o relay não exercita a reserva UPDATE ... RETURNING com SKIP LOCKED,
+                  nem a renovação da reserva, nem a disputa entre réplicas;
+                - RabbitMQ e API do Telegram substituídos por stubs locais (sem rede, confirmação imediata).
+                """);
+        return texto.toString();
+    }
+
+    private static double percentil(long[] ordenados, double quantil) {
+        int posicao = (int) Math.ceil(quantil * ordenados.length) - 1;
+        return ordenados[Math.max(0, Math.min(posicao, ordenados.length - 1))] / 1e6;
+    }
+
+    private static String chave(String placa, LocalDate data, LocalTime hora) {
+        return placa + '|' + data + '|' + hora;
+    }
+
+    private static String placaAleatoria(SplittableRandom random) {
+        char[] placa = new char[7];
+        for (int i = 0; i < 3; i++) {
+            placa[i] = (char) ('A' + random.nextInt(26));
+        }
+        placa[3] = (char) ('0' + random.nextInt(10));
+        placa[4] = random.nextBoolean() ? (char) ('A' + random.nextInt(26)) : (char) ('0' + random.nextInt(10));
+        placa[5] = (char) ('0' + random.nextInt(10));
+        placa[6] = (char) ('0' + random.nextInt(10));
+        return new String(placa);
+    }
+
+    // Layouts reais: RONDON com 7 campos, as demais com praça (8 campos)
+    private static byte[] mensagemRadar(SplittableRandom random, String placa, LocalDate data, LocalTime hora) {
+        String concessionaria = CONCESSIONARIAS[random.nextInt(CONCESSIONARIAS.length)];
+        StringBuilder mensagem = new StringBuilder(96)
+                .append(concessionaria).append('|').append(data).append('|')
+                .append(String.format("%02d:%02d:%02d", hora.getHour(), hora.getMinute(), hora.getSecond()))
+                .append('|').append(placa);
+        if (!"RONDON".equals(concessionaria)) {
+            mensagem.append('|').append(PRACAS[random.nextInt(PRACAS.length)]);
+        }
+        mensagem.append('|').append(RODOVIAS[random.nextInt(RODOVIAS.length)])
+                .append('|').append(random.nextInt(500)).append(',').append(random.nextInt(1000))
+                .append('|').append(SENTIDOS[random.nextInt(SENTIDOS.length)]);
+        return mensagem.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Substituto do container em lote do RabbitMQ: junta até batch-size mensagens, ou o que chegou
+     * em receive-timeout-ms, e entrega o lote ao listener.
+     */
+    private class ConsumidorEmLote extends Thread {
+        private final BlockingQueue<Message> fila;
+        private volatile boolean ativo = true;
+        final AtomicLong consumidas = new AtomicLong();
+        final AtomicLong lotes = new AtomicLong();
+        final AtomicLong ultimoConsumo = new AtomicLong(System.nanoTime());
+
+        ConsumidorEmLote(BlockingQueue<Message> fila) {
+            super("carga-consumidor-radares");
+            this.fila = fila;
+        }
+
+        @Override
+        public void run() {
+            List<Message> lote = new ArrayList<>(TAMANHO_LOTE);
+            while (ativo) {
+                try {
+                    Message primeira = fila.poll(TIMEOUT_LOTE_MS, TimeUnit.MILLISECONDS);
+                    if (primeira == null) {
+                        continue;
+                    }
+                    lote.add(primeira);
+                    long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_LOTE_MS);
+                    while (lote.size() < TAMANHO_LOTE) {
+                        Message proxima = fila.poll(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        if (proxima == null) {
+                            break;
+                        }
+                        lote.add(proxima);
+                    }
+                    monitoramentoService.onRadarBatch(lote);
+                    consumidas.addAndGet(lote.size());
+                    lotes.incrementAndGet();
+                    ultimoConsumo.set(System.nanoTime());
+                    lote.clear();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void parar() throws InterruptedException {
+            ativo = false;
+            join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Outbox em memória com a mesma semântica de reserva da tabela outbox_eventos
+     * (eventos reservados só voltam quando reagendados).
+     */
+    static class OutboxEmMemoria {
+        private final AtomicLong sequencia = new AtomicLong();
+        private final ConcurrentSkipListMap<Long, EventoOutbox> prontos = new ConcurrentSkipListMap<>();
+        private final Map<Long, EventoOutbox> reservados = new ConcurrentHashMap<>();
+
+        public List<EventoOutbox> saveAll(Iterable<EventoOutbox> eventos) {
+            List<EventoOutbox> salvos = new ArrayList<>();
+            for (EventoOutbox evento : eventos) {
+                evento.setId(sequencia.incrementAndGet());
+                prontos.put(evento.getId(), evento);
+                salvos.add(evento);
+            }
+            return salvos;
+        }
+
+        public synchronized List<EventoOutbox> reservarLote(int limite, long reservaSegundos) {
+            List<EventoOutbox> lote = new ArrayList<>(limite);
+            Map.Entry<Long, EventoOutbox> proximo;
+            while (lote.size() < limite && (proximo = prontos.pollFirstEntry()) != null) {
+                reservados.put(proximo.getKey(), proximo.getValue());
+                lote.add(proximo.getValue());
+            }
+            return lote;
+        }
+
+        public void deleteAllByIdInBatch(Iterable<Long> ids) {
+            ids.forEach(reservados::remove);
+        }
+
+        public int reagendar(Collection<Long> ids, long esperaSegundos) {
+            for (Long id : ids) {
+                EventoOutbox evento = reservados.remove(id);
+                if (evento != null) {
+                    evento.setTentativas(evento.getTentativas() + 1);
+                    prontos.put(id, evento);
+                }
+            }
+            return ids.size();
+        }
+
+        // Aqui a reserva não expira: basta confirmar que os eventos continuam reservados
+        public int renovarReserva(Collection<Long> ids, long reservaSegundos) {
+            return (int) ids.stream().filter(reservados::containsKey).count();
+        }
+
+        @Override
+        public String toString() {
+            return "OutboxEmMemoria" + Arrays.asList(prontos.size(), reservados.size());
+        }
+    }
+}
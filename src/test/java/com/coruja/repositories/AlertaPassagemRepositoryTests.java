@@ -0,0 +1,112 @@
+package com.coruja.repositories;
+
+import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.entities.AlertaPassagem;
+import com.coruja.entities.PlacaMonitorada;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que a listagem de alertas não sofre de N+1: a placa monitorada de cada alerta
+ * precisa vir na mesma consulta da página.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.bootstrap.enabled=false",
+        "eureka.client.enabled=false"
+})
+class AlertaPassagemRepositoryTests {
+
+    private static final int PLACAS = 10;
+    private static final int ALERTAS_POR_PLACA = 10;
+    private static final int TAMANHO_PAGINA = 50;
+
+    @Autowired
+    private AlertaPassagemRepository alertaRepository;
+
+    @Autowired
+    private PlacaMonitoradaRepository placaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int p = 0; p < PLACAS; p++) {
+            PlacaMonitorada placa = new PlacaMonitorada();
+            placa.setPlaca(String.format("ABC%04d", p));
+            placa.setMotivo("Roubo");
+            placa.setStatusAtivo(true);
+            placa = placaRepository.save(placa);
+
+            for (int a = 0; a < ALERTAS_POR_PLACA; a++) {
+                alertaRepository.save(AlertaPassagem.builder()
+                        .concessionaria("CART").data(LocalDate.now()).hora(LocalTime.NOON)
+                        .placa(placa.getPlaca()).praca("N/A").rodovia("SP-270").km(String.valueOf(a)).sentido("Norte")
+                        .placaMonitorada(placa)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void paginaDeAlertasUsaUmaConsultaMaisOCount() {
+        Page<AlertaPassagemDTO> pagina = alertaRepository.findAllComPlaca(PageRequest.of(0, TAMANHO_PAGINA))
+                .map(AlertaPassagemDTO::new);
+
+        assertThat(pagina.getContent()).hasSize(TAMANHO_PAGINA);
+        assertThat(pagina.getContent()).allSatisfy(dto -> assertThat(dto.getPlacaMonitorada()).isNotNull());
+        // 1 SELECT da página (com join) + 1 count(*)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void paginaPorCursorUsaUmaUnicaConsulta() {
+        Sort ordem = Sort.by(Sort.Order.desc("timestampAlerta"), Sort.Order.desc("id"));
+        List<AlertaPassagemDTO> pagina = alertaRepository.findBy(Specification.where(null),
+                        consulta -> consulta.project("placaMonitorada").sortBy(ordem).limit(TAMANHO_PAGINA).all())
+                .stream()
+                .map(AlertaPassagemDTO::new)
+                .toList();
+
+        assertThat(pagina).hasSize(TAMANHO_PAGINA);
+        assertThat(pagina).allSatisfy(dto -> assertThat(dto.getPlacaMonitorada()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ultimosAlertasUsaUmaUnicaConsulta() {
+        List<AlertaPassagemDTO> ultimos = alertaRepository
+                .findByOrderByTimestampAlertaDescIdDesc(PageRequest.of(0, 20)).stream()
+                .map(AlertaPassagemDTO::new)
+                .toList();
+
+        assertThat(ultimos).hasSize(20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.coruja.services;
+
+import com.coruja.dto.AlertaPassagemDTO;
+import com.coruja.repositories.AlertaPassagemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AlertaStreamTests {
+
+    @Test
+    void retomadaSegueAOrdemDeTransmissaoENaoAOrdemDosIds() {
+        UltimosAlertasBuffer buffer = new UltimosAlertasBuffer(mock(AlertaPassagemRepository.class), 10);
+        AlertaStream stream = new AlertaStream(buffer, 16, 60);
+        // Partições gravando em paralelo: o id 50 é transmitido antes do 3
+        stream.publicar(alertas(1L, 50L, 3L, 51L));
+
+        List<Long> recebidos = new CopyOnWriteArrayList<>();
+        Disposable assinatura = assinar(stream, 50L, recebidos);
+
+        assertThat(recebidos).containsExactly(3L, 51L);
+        assinatura.dispose();
+    }
+
+    @Test
+    void alertaTransmitidoDuranteARetomadaChegaUmaVez() {
+        AlertaStream[] stream = new AlertaStream[1];
+        UltimosAlertasBuffer buffer = new UltimosAlertasBuffer(mock(AlertaPassagemRepository.class), 10) {
+            private boolean primeiraLeitura = true;
+
+            @Override
+            public List<AlertaPassagemDTO> ultimos() {
+                // Chega um alerta entre a conexão ao vivo e a leitura do buffer
+                if (primeiraLeitura) {
+                    primeiraLeitura = false;
+                    stream[0].publicar(alertas(7L));
+                }
+                return super.ultimos();
+            }
+        };
+        stream[0] = new AlertaStream(buffer, 16, 60);
+        stream[0].publicar(alertas(5L, 6L));
+
+        List<Long> recebidos = new CopyOnWriteArrayList<>();
+        Disposable assinatura = assinar(stream[0], 5L, recebidos);
+        stream[0].publicar(alertas(8L));
+
+        assertThat(recebidos).containsExactly(6L, 7L, 8L);
+        assinatura.dispose();
+        assertThat(stream[0].assinantes()).isZero();
+    }
+
+    @Test
+    void idQueJaSaiuDoBufferReenviaOsDeIdMaior() {
+        UltimosAlertasBuffer buffer = new UltimosAlertasBuffer(mock(AlertaPassagemRepository.class), 2);
+        AlertaStream stream = new AlertaStream(buffer, 16, 60);
+        stream.publicar(alertas(10L, 12L, 11L));
+
+        List<Long> recebidos = new CopyOnWriteArrayList<>();
+        Disposable assinatura = assinar(stream, 10L, recebidos);
+
+        assertThat(recebidos).containsExactly(12L, 11L);
+        assinatura.dispose();
+    }
+
+    private static Disposable assinar(AlertaStream stream, Long ultimoId, List<Long> recebidos) {
+        return stream.assinar(ultimoId)
+                .filter(evento -> evento.data() != null)
+                .map(ServerSentEvent::data)
+                .subscribe(alerta -> recebidos.add(alerta.getId()));
+    }
+
+    private static List<AlertaPassagemDTO> alertas(Long... ids) {
+        return Arrays.stream(ids).map(id -> {
+            AlertaPassagemDTO alerta = new AlertaPassagemDTO();
+            alerta.setId(id);
+            return alerta;
+        }).toList();
+    }
+}
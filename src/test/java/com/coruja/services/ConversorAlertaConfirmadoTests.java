@@ -0,0 +1,87 @@
+package com.coruja.services;
+
+import com.coruja.config.RabbitMQConfig;
+import com.coruja.dto.AlertaPassagemDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConversorAlertaConfirmadoTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void padraoPublicaSoJsonComoTextoNaRoutingKeyDeSempre() throws Exception {
+        ConversorAlertaConfirmado conversor = new ConversorAlertaConfirmado(objectMapper, List.of());
+        AlertaPassagemDTO alerta = alerta();
+
+        assertThat(conversor.formatos()).containsExactly(
+                new ConversorAlertaConfirmado.Formato(RabbitMQConfig.ALERTAS_ROUTING_KEY, MessageProperties.CONTENT_TYPE_TEXT_PLAIN));
+
+        Message mensagem = conversor.mensagem(conversor.serializar(alerta), ConversorAlertaConfirmado.TEXTO);
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        assertThat(mensagem.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+
+        // Consumidores com o SimpleMessageConverter continuam recebendo o JSON como String
+        Object lido = new SimpleMessageConverter().fromMessage(mensagem);
+        assertThat(lido).isEqualTo(objectMapper.writeValueAsString(alerta));
+        assertThat(conversor.ler(mensagem)).isEqualTo(alerta);
+    }
+
+    @Test
+    void eventoGravadoComoJsonEPublicadoComoTexto() {
+        ConversorAlertaConfirmado conversor = new ConversorAlertaConfirmado(objectMapper, List.of());
+
+        Message mensagem = conversor.mensagem("{}".getBytes(StandardCharsets.UTF_8), MessageProperties.CONTENT_TYPE_JSON);
+
+        assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+    }
+
+    @Test
+    void formatoBinarioInvalidoOuSemModuloFalhaNaInicializacao() {
+        assertThatThrownBy(() -> new ConversorAlertaConfirmado(objectMapper, List.of("xml")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("xml");
+        boolean cborNoClasspath = true;
+        try {
+            Class.forName("com.fasterxml.jackson.dataformat.cbor.CBORFactory");
+        } catch (ClassNotFoundException e) {
+            cborNoClasspath = false;
+        }
+        if (!cborNoClasspath) {
+            assertThatThrownBy(() -> new ConversorAlertaConfirmado(objectMapper, List.of("cbor")))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("binario");
+        }
+    }
+
+    @Test
+    void listaVaziaOuComEspacosNaoHabilitaFormatos() {
+        ConversorAlertaConfirmado conversor = new ConversorAlertaConfirmado(objectMapper, List.of("", " "));
+
+        assertThat(conversor.formatos()).hasSize(1);
+        assertThatThrownBy(() -> conversor.serializar(alerta(), ConversorAlertaConfirmado.CBOR))
+                .hasMessageContaining("não habilitado");
+    }
+
+    private static AlertaPassagemDTO alerta() {
+        AlertaPassagemDTO alerta = new AlertaPassagemDTO();
+        alerta.setId(7L);
+        alerta.setConcessionaria("RONDON");
+        alerta.setPlaca("ABC1D23");
+        alerta.setData(LocalDate.of(2025, 3, 5));
+        alerta.setHora(LocalTime.of(7, 8, 9));
+        return alerta;
+    }
+}
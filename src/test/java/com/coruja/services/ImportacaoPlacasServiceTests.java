@@ -0,0 +1,96 @@
+package com.coruja.services;
+
+import com.coruja.dto.ResultadoImportacaoDTO;
+import com.coruja.services.ImportacaoPlacasService.Formato;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ImportacaoPlacasServiceTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ImportacaoPlacasService service = new ImportacaoPlacasService(jdbcTemplate,
+            mock(PlatformTransactionManager.class), mock(IndicePlacasAtivas.class), new ObjectMapper());
+    private final List<String> comandos = new ArrayList<>();
+    private final List<List<Object>> parametros = new ArrayList<>();
+
+    @BeforeEach
+    void capturarComandos() {
+        ReflectionTestUtils.setField(service, "tamanhoLote", 500);
+        doAnswer(invocacao -> {
+            comandos.add(invocacao.getArgument(0));
+            Object[] argumentos = invocacao.getArguments();
+            parametros.add(Arrays.asList(argumentos).subList(2, argumentos.length));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void importacaoParcialSoAtualizaAsColunasDoCabecalho() throws IOException {
+        ResultadoImportacaoDTO resultado = importarCsv("placa,cor\nabc1234,PRATA\nXYZ9A87,\n");
+
+        assertThat(resultado.getErros()).isZero();
+        assertThat(comandos).hasSize(1);
+        String conflito = comandos.get(0).substring(comandos.get(0).indexOf("ON CONFLICT"));
+        assertThat(conflito).contains("cor = EXCLUDED.cor", "updated_at = EXCLUDED.updated_at");
+        assertThat(conflito).doesNotContain("marca_modelo", "status_ativo", "motivo", "telegram_chat_id");
+        // Placa nova entra como ativa; a coluna cor vazia apaga a cor da segunda placa
+        assertThat(parametros.get(0).subList(0, 5)).containsExactly("ABC1234", null, "PRATA", null, true);
+        assertThat(parametros.get(0).get(13)).isNull();
+    }
+
+    @Test
+    void statusAtivoSoEAlteradoQuandoInformado() throws IOException {
+        importarCsv("placa,statusAtivo\nABC1234,nao\nXYZ9A87,\n");
+
+        // Registros com campos diferentes vão em comandos separados
+        assertThat(comandos).hasSize(2);
+        assertThat(comandos.get(0)).contains("status_ativo = EXCLUDED.status_ativo");
+        assertThat(parametros.get(0).get(4)).isEqualTo(false);
+        assertThat(comandos.get(1).substring(comandos.get(1).indexOf("ON CONFLICT"))).doesNotContain("status_ativo");
+    }
+
+    @Test
+    void ignoraOBomNoInicioDoArquivo() throws IOException {
+        ResultadoImportacaoDTO resultado = importarCsv("\uFEFFplaca;motivo\nABC1234;furto\n", ';');
+
+        assertThat(resultado.getErros()).isZero();
+        assertThat(comandos.get(0)).contains("motivo = EXCLUDED.motivo");
+        assertThat(parametros.get(0).get(3)).isEqualTo("furto");
+    }
+
+    @Test
+    void ndjsonAtualizaSoAsChavesPresentes() throws IOException {
+        String ndjson = "{\"placa\":\"ABC1234\",\"telefone\":\"11999990000\",\"observacao\":null}\n";
+        service.importar(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), Formato.NDJSON, ',');
+
+        String conflito = comandos.get(0).substring(comandos.get(0).indexOf("ON CONFLICT"));
+        assertThat(conflito).contains("telefone = EXCLUDED.telefone", "observacao = EXCLUDED.observacao");
+        assertThat(conflito).doesNotContain("cor =", "status_ativo", "interessado");
+    }
+
+    private ResultadoImportacaoDTO importarCsv(String csv) throws IOException {
+        return importarCsv(csv, ',');
+    }
+
+    private ResultadoImportacaoDTO importarCsv(String csv, char separador) throws IOException {
+        return service.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), Formato.CSV, separador);
+    }
+}
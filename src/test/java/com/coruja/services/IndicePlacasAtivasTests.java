@@ -0,0 +1,75 @@
+package com.coruja.services;
+
+import com.coruja.repositories.PlacaMonitoradaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndicePlacasAtivasTests {
+
+    private final PlacaMonitoradaRepository placaRepository = mock(PlacaMonitoradaRepository.class);
+    private final IndicePlacasAtivas indice = new IndicePlacasAtivas(placaRepository, mock(ApplicationEventPublisher.class));
+
+    @Test
+    void alteracoesIndividuaisSaoVistasSemRecarregar() {
+        when(placaRepository.findPlacasAtivas()).thenReturn(List.of("ABC1234", "PLACA-ESPECIAL"));
+        indice.recarregar();
+
+        indice.atualizar("XYZ9A87", true);
+        indice.atualizar("ABC1234", false);
+        indice.atualizar("PLACA-ESPECIAL", false);
+
+        assertThat(indice.contem("XYZ9A87")).isTrue();
+        assertThat(indice.contem("ABC1234")).isFalse();
+        assertThat(indice.contem("PLACA-ESPECIAL")).isFalse();
+        assertThat(indice.tamanho()).isEqualTo(1);
+
+        indice.atualizar("ABC1234", true);
+        indice.atualizar("XYZ9A87", false);
+        assertThat(indice.contem("ABC1234")).isTrue();
+        assertThat(indice.contem("XYZ9A87")).isFalse();
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void incorporaAsAlteracoesNaBaseAoPassarDoLimite() {
+        when(placaRepository.findPlacasAtivas()).thenReturn(List.of());
+        indice.recarregar();
+
+        List<String> placas = new ArrayList<>();
+        for (int i = 0; i < IndicePlacasAtivas.LIMITE_ALTERACOES * 3; i++) {
+            String placa = String.format("AAA%04d", i);
+            placas.add(placa);
+            indice.atualizar(placa, true);
+        }
+        for (int i = 0; i < placas.size(); i += 2) {
+            indice.atualizar(placas.get(i), false);
+        }
+
+        for (int i = 0; i < placas.size(); i++) {
+            assertThat(indice.contem(placas.get(i))).isEqualTo(i % 2 == 1);
+        }
+        assertThat(indice.tamanho()).isEqualTo(placas.size() / 2);
+    }
+
+    @Test
+    void recargaNaoDesfazAlteracaoConfirmadaDuranteALeituraDoBanco() {
+        // A alteração chega depois de o banco ser lido: o retrato da recarga não a contém
+        when(placaRepository.findPlacasAtivas()).thenAnswer(invocacao -> {
+            indice.aplicarAlteracaoRemota("NEW1234", true);
+            indice.aplicarAlteracaoRemota("OLD1234", false);
+            return List.of("OLD1234");
+        });
+
+        indice.recarregar();
+
+        assertThat(indice.contem("NEW1234")).isTrue();
+        assertThat(indice.contem("OLD1234")).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package com.coruja.services;
+
+import com.coruja.entities.AlertaPassagem;
+import com.coruja.entities.PlacaMonitorada;
+import com.coruja.services.MensagemAlertaFormatter.MensagensAlerta;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MensagemAlertaFormatterTests {
+
+    @Test
+    void textoPadraoIgualAoDoStringFormatAnterior() {
+        AlertaPassagem alerta = alerta("Rondon", "ABC1D23", "SP-300", "123,4", "Norte", "Praça 2");
+
+        MensagensAlerta mensagens = new MensagemAlertaFormatter(new MockEnvironment()).formatar(alerta, true);
+
+        // Texto montado como antes dos templates (String.format em MonitoramentoService)
+        String anterior = String.format(
+                "🚨 <b>Concessionária %s</b> 🚨\n" +
+                        "🗓️ Data: %s\n" +
+                        "⏰ Horário: %s\n" +
+                        "🚨 Placa: <b>%s</b> \n" +
+                        "🚗 Marca/Modelo: %s \n" +
+                        "📍 Local: %s\n\n" +
+                        "⚠️ Motivo: %s\n" +
+                        "👤 Interessado: %s",
+                "Rondon", "05/03/2025", "07:08:09", "ABC1D23", "Fiat Uno, Prata",
+                "SP-300 - km 123,4 - Sentido: Norte - Praça 2", "Furto", "Delegacia");
+        assertThat(mensagens.grupo()).isEqualTo(anterior);
+        assertThat(mensagens.privado()).isEqualTo("⚠️ <b>SEU VEÍCULO FOI DETECTADO!</b> ⚠️\n\n" + anterior);
+    }
+
+    @Test
+    void camposSemInformacaoSaemDoVeiculoEDoLocal() {
+        AlertaPassagem alerta = alerta("Rondon", "ABC1D23", "N/A", " ", "Sul", null);
+
+        String grupo = new MensagemAlertaFormatter(new MockEnvironment()).formatar(alerta, false).grupo();
+
+        assertThat(grupo).contains("📍 Local: Sentido: Sul\n");
+    }
+
+    @Test
+    void valoresDoAlertaSaoEscapadosParaHtml() {
+        AlertaPassagem alerta = alerta("Rondon", "ABC1D23", "SP-300", "1", "Norte", "<b>Praça & Cia</b>");
+
+        MensagensAlerta mensagens = new MensagemAlertaFormatter(new MockEnvironment()).formatar(alerta, false);
+
+        assertThat(mensagens.grupo()).contains("&lt;b&gt;Praça &amp; Cia&lt;/b&gt;");
+        assertThat(mensagens.privado()).isNull();
+    }
+
+    @Test
+    void templatePorConcessionariaIgnoraCaixaEEspacos() {
+        MockEnvironment ambiente = new MockEnvironment()
+                .withProperty("telegram.mensagem.concessionaria.rondon.grupo", "[{concessionaria}] {placa}");
+        MensagemAlertaFormatter formatter = new MensagemAlertaFormatter(ambiente);
+
+        MensagensAlerta rondon = formatter.formatar(alerta(" RONDON ", "ABC1D23", "SP-300", "1", "Norte", null), true);
+        assertThat(rondon.grupo()).isEqualTo("[ RONDON ] ABC1D23");
+        assertThat(rondon.privado()).isEqualTo("⚠️ <b>SEU VEÍCULO FOI DETECTADO!</b> ⚠️\n\n[ RONDON ] ABC1D23");
+
+        assertThat(formatter.formatar(alerta("Eixo", "ABC1D23", "SP-300", "1", "Norte", null), false).grupo())
+                .startsWith("🚨 <b>Concessionária Eixo</b>");
+    }
+
+    @Test
+    void templateInvalidoDeConcessionariaFalhaNaInicializacao() {
+        MockEnvironment marcador = new MockEnvironment()
+                .withProperty("telegram.mensagem.concessionaria.rondon.privado", "{placaa}");
+        assertThatThrownBy(() -> new MensagemAlertaFormatter(marcador))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("rondon")
+                .hasMessageContaining("{placaa}");
+
+        MockEnvironment chave = new MockEnvironment()
+                .withProperty("telegram.mensagem.concessionaria.rondon.grupoo", "{placa}");
+        assertThatThrownBy(() -> new MensagemAlertaFormatter(chave))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("rondon.grupoo");
+    }
+
+    private static AlertaPassagem alerta(String concessionaria, String placa, String rodovia, String km,
+                                         String sentido, String praca) {
+        PlacaMonitorada monitorada = PlacaMonitorada.builder()
+                .placa(placa)
+                .marcaModelo("Fiat Uno")
+                .cor("Prata")
+                .motivo("Furto")
+                .interessado("Delegacia")
+                .build();
+        return AlertaPassagem.builder()
+                .concessionaria(concessionaria)
+                .data(LocalDate.of(2025, 3, 5))
+                .hora(LocalTime.of(7, 8, 9))
+                .placa(placa)
+                .rodovia(rodovia)
+                .km(km)
+                .sentido(sentido)
+                .praca(praca)
+                .placaMonitorada(monitorada)
+                .build();
+    }
+}
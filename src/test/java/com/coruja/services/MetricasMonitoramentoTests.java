@@ -0,0 +1,71 @@
+package com.coruja.services;
+
+import com.coruja.util.JanelaDeduplicacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricasMonitoramentoTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasMonitoramento metricas = new MetricasMonitoramento(registry,
+            new JanelaDeduplicacao(Duration.ofSeconds(60), 6, 100),
+            new JanelaDeduplicacao(Duration.ofSeconds(900), 6, 100),
+            List.of("rondon", " Cart ", "", "RONDON"));
+
+    @Test
+    void nomeConfiguradoEReconhecidoSemDiferenciarCaixaNemEspacos() {
+        assertThat(concessionaria("RONDON|05/03/2025|07:08:09|ABC1D23").nome()).isEqualTo("RONDON");
+        assertThat(concessionaria("  rondon |05/03/2025").nome()).isEqualTo("RONDON");
+        assertThat(concessionaria("Cart|x").nome()).isEqualTo("CART");
+        assertThat(metricas.concessionaria(" cart ").nome()).isEqualTo("CART");
+    }
+
+    @Test
+    void nomesForaDaListaEntramComoOutraSemCriarMedidores() {
+        int medidores = registry.getMeters().size();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(concessionaria("LIXO" + i + "|x").nome()).isEqualTo(MetricasMonitoramento.OUTRA);
+        }
+        assertThat(concessionaria("RONDONX|x").nome()).isEqualTo(MetricasMonitoramento.OUTRA);
+        assertThat(concessionaria("|x").nome()).isEqualTo(MetricasMonitoramento.OUTRA);
+        assertThat(metricas.concessionaria((String) null).nome()).isEqualTo(MetricasMonitoramento.OUTRA);
+
+        assertThat(registry.getMeters()).hasSize(medidores);
+    }
+
+    @Test
+    void contadoresSaoSeparadosPorConcessionaria() {
+        concessionaria("RONDON|x").recebida();
+        concessionaria("rondon|x").recebida();
+        concessionaria("EIXO|x").recebida();
+
+        assertThat(registry.get("monitoramento.radar.mensagens").tag("concessionaria", "RONDON").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("monitoramento.radar.mensagens").tag("concessionaria", "OUTRA").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void placaForaDaListaContaComoFaltaENaoComoErro() {
+        concessionaria("RONDON|x").consulta(true);
+        concessionaria("RONDON|x").consulta(false);
+        concessionaria("RONDON|x").consulta(false);
+
+        assertThat(registry.get("monitoramento.watchlist.consultas").tags("concessionaria", "RONDON", "resultado", "acerto")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("monitoramento.watchlist.consultas").tags("concessionaria", "RONDON", "resultado", "falta")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.find("monitoramento.watchlist.consultas").tag("resultado", "erro").counter()).isNull();
+    }
+
+    private MetricasMonitoramento.Concessionaria concessionaria(String mensagem) {
+        return metricas.concessionaria(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+}
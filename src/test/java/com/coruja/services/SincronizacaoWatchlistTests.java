@@ -0,0 +1,128 @@
+package com.coruja.services;
+
+import com.coruja.config.RabbitMQConfig;
+import com.coruja.dto.AlteracaoWatchlistDTO;
+import com.coruja.repositories.PlacaMonitoradaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SincronizacaoWatchlistTests {
+
+    private final PlacaMonitoradaRepository placaRepository = mock(PlacaMonitoradaRepository.class);
+    private final IndicePlacasAtivas indice = new IndicePlacasAtivas(placaRepository, mock(ApplicationEventPublisher.class));
+    private final SincronizacaoWatchlist sincronizacao = new SincronizacaoWatchlist(indice, placaRepository,
+            mock(RabbitTemplate.class), new ObjectMapper());
+
+    @Test
+    void indiceIgualAoBancoNaoERecarregado() throws Exception {
+        carregar("ABC1D23", "XYZ9876");
+        // Alteração recebida por evento e já gravada no banco
+        indice.aplicarAlteracaoRemota("DEF4G56", true);
+        banco("ABC1D23", "XYZ9876", "DEF4G56");
+
+        sincronizacao.reconciliar();
+
+        verify(placaRepository, times(1)).findPlacasAtivas();
+    }
+
+    @Test
+    void placaTrocadaSemEventoERecarregadaMesmoComAMesmaQuantidade() throws Exception {
+        carregar("ABC1D23", "XYZ9876");
+        // Outra réplica trocou XYZ9876 por DEF4G56 e os eventos se perderam
+        when(placaRepository.findPlacasAtivas()).thenReturn(List.of("ABC1D23", "DEF4G56"));
+        banco("ABC1D23", "DEF4G56");
+
+        sincronizacao.reconciliar();
+
+        assertThat(indice.contem("DEF4G56")).isTrue();
+        assertThat(indice.contem("XYZ9876")).isFalse();
+        // Na verificação seguinte o índice já bate com o banco
+        sincronizacao.reconciliar();
+        verify(placaRepository, times(2)).findPlacasAtivas();
+    }
+
+    @Test
+    void alteracaoSaiPeloConversorDoRabbitTemplateAutoconfigurado() throws Exception {
+        Channel canal = mock(Channel.class);
+        Connection conexao = mock(Connection.class);
+        when(conexao.createChannel(anyBoolean())).thenReturn(canal);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(conexao);
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(RabbitAutoConfiguration.class, JacksonAutoConfiguration.class))
+                .withBean(ConnectionFactory.class, () -> connectionFactory)
+                .withBean(ConversorAlertaConfirmado.class)
+                .run(contexto -> {
+                    ObjectMapper objectMapper = contexto.getBean(ObjectMapper.class);
+                    SincronizacaoWatchlist origem = new SincronizacaoWatchlist(mock(IndicePlacasAtivas.class),
+                            mock(PlacaMonitoradaRepository.class), contexto.getBean(RabbitTemplate.class), objectMapper);
+
+                    origem.publicar(new AlteracaoWatchlistDTO(null, "ABC1D23", false, false));
+
+                    ArgumentCaptor<byte[]> corpo = ArgumentCaptor.forClass(byte[].class);
+                    verify(canal).basicPublish(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.WATCHLIST_ROUTING_KEY),
+                            anyBoolean(), any(AMQP.BasicProperties.class), corpo.capture());
+
+                    // A outra réplica aplica a alteração recebida
+                    IndicePlacasAtivas indiceRemoto = mock(IndicePlacasAtivas.class);
+                    SincronizacaoWatchlist destino = new SincronizacaoWatchlist(indiceRemoto,
+                            mock(PlacaMonitoradaRepository.class), mock(RabbitTemplate.class), objectMapper);
+                    destino.receber(new Message(corpo.getValue(), new MessageProperties()));
+                    verify(indiceRemoto).aplicarAlteracaoRemota("ABC1D23", false);
+                });
+    }
+
+    private void carregar(String... placas) {
+        when(placaRepository.findPlacasAtivas()).thenReturn(List.of(placas));
+        indice.recarregar();
+    }
+
+    // Resumo como o Postgres calcula: ('x' || substr(md5(upper(placa)), 1, 8))::bit(32)::int
+    private void banco(String... placas) throws Exception {
+        long soma = 0;
+        for (String placa : placas) {
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(placa.getBytes(StandardCharsets.UTF_8));
+            soma += (int) Long.parseLong(HexFormat.of().formatHex(md5).substring(0, 8), 16);
+        }
+        long somaVerificacao = soma;
+        when(placaRepository.findVersaoWatchlist()).thenReturn(new PlacaMonitoradaRepository.VersaoWatchlist() {
+            @Override
+            public Long getAtivas() {
+                return (long) placas.length;
+            }
+
+            @Override
+            public Long getSomaVerificacao() {
+                return somaVerificacao;
+            }
+        });
+    }
+}
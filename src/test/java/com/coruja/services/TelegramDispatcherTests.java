@@ -0,0 +1,128 @@
+package com.coruja.services;
+
+import com.coruja.util.JanelaDeduplicacao;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Limites de taxa e repetições do despachante, contra um servidor HTTP local no lugar da API do Telegram.
+ */
+class TelegramDispatcherTests {
+
+    private final List<Long> requisicoes = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private HttpServer servidor;
+    private TelegramDispatcher dispatcher;
+
+    @AfterEach
+    void encerrar() {
+        if (dispatcher != null) {
+            dispatcher.encerrar();
+        }
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    @Test
+    void respeitaOLimiteGlobal() throws Exception {
+        iniciar(10, 6000, 1000, 10);
+
+        List<CompletableFuture<Void>> envios = new ArrayList<>();
+        for (int chat = 1; chat <= 20; chat++) {
+            envios.add(dispatcher.enviar(String.valueOf(chat), "alerta " + chat));
+        }
+        long inicio = System.nanoTime();
+        Thread.sleep(500);
+        // Balde global de 10 fichas, repostas a 10/s: no máximo ~15 envios em meio segundo
+        assertThat(requisicoes.size()).isLessThanOrEqualTo(16);
+
+        CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(requisicoes).hasSize(20);
+        assertThat(System.nanoTime() - inicio).isGreaterThan(Duration.ofMillis(800).toNanos());
+    }
+
+    @Test
+    void respeitaOLimitePorChat() throws Exception {
+        iniciar(1000, 120, 1000, 10); // grupos: 2 mensagens/s
+        // Aquece o cliente HTTP, para que a primeira conexão não esconda a espera pelo limite do chat
+        dispatcher.enviar("1", "aquecimento").get(5, TimeUnit.SECONDS);
+
+        dispatcher.enviar("-100", "primeira").get(5, TimeUnit.SECONDS);
+        dispatcher.enviar("-100", "segunda").get(5, TimeUnit.SECONDS);
+
+        assertThat(requisicoes).hasSize(3);
+        assertThat(requisicoes.get(2) - requisicoes.get(1)).isGreaterThan(Duration.ofMillis(400).toNanos());
+    }
+
+    @Test
+    void limitaAsRepeticoesAposRespostas429() throws Exception {
+        status = 429;
+        iniciar(1000, 6000, 1000, 1);
+
+        CompletableFuture<Void> envio = dispatcher.enviar("-100", "alerta");
+
+        assertThatThrownBy(() -> envio.get(10, TimeUnit.SECONDS)).hasMessageContaining("429");
+        assertThat(requisicoes).hasSize(2);
+        assertThat(dispatcher.pendentes()).isZero();
+    }
+
+    @Test
+    void descartaAFilaDeChatOciosoSemPerderEnviosSeguintes() throws Exception {
+        iniciar(1000, 6000, 1000, 10);
+
+        dispatcher.enviar("7", "primeira").get(5, TimeUnit.SECONDS);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.chatsComFila() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(dispatcher.chatsComFila()).isZero();
+
+        dispatcher.enviar("7", "segunda").get(5, TimeUnit.SECONDS);
+        assertThat(requisicoes).hasSize(2);
+    }
+
+    private void iniciar(double globalPorSegundo, double grupoPorMinuto, double privadoPorSegundo, int maxLimitacoes)
+            throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/", troca -> {
+            requisicoes.add(System.nanoTime());
+            troca.getRequestBody().readAllBytes();
+            int codigo = status;
+            byte[] corpo = (codigo == 429
+                    ? "{\"ok\":false,\"error_code\":429,\"parameters\":{\"retry_after\":1}}"
+                    : "{\"ok\":true}").getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().add("Content-Type", "application/json");
+            troca.sendResponseHeaders(codigo, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        });
+        servidor.start();
+
+        MetricasMonitoramento metricas = new MetricasMonitoramento(new SimpleMeterRegistry(),
+                new JanelaDeduplicacao(Duration.ofSeconds(60), 6, 1000),
+                new JanelaDeduplicacao(Duration.ofSeconds(900), 6, 1000), List.of("RONDON"));
+        dispatcher = new TelegramDispatcher(WebClient.builder(), 1000, globalPorSegundo, grupoPorMinuto,
+                privadoPorSegundo, 5, maxLimitacoes, 5,
+                "http://127.0.0.1:" + servidor.getAddress().getPort(), "teste", metricas);
+        dispatcher.iniciar();
+    }
+}
@@ -0,0 +1,115 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JanelaDeduplicacaoTests {
+
+    private final AtomicLong agoraMs = new AtomicLong(1_000_000);
+
+    // 60 s em 6 baldes de 10 s
+    private JanelaDeduplicacao janela(int maximoPorBalde) {
+        return new JanelaDeduplicacao(Duration.ofSeconds(60), 6, maximoPorBalde, agoraMs::get);
+    }
+
+    @Test
+    void chaveRepetidaDentroDaJanelaEDuplicada() {
+        JanelaDeduplicacao janela = janela(100);
+
+        assertThat(janela.registrar(42)).isTrue();
+        agoraMs.addAndGet(35_000);
+        assertThat(janela.registrar(42)).isFalse();
+        assertThat(janela.registrar(43)).isTrue();
+        assertThat(janela.suprimidas()).isEqualTo(1);
+    }
+
+    @Test
+    void chaveExpiraDepoisDaJanelaAtravessandoBaldes() {
+        JanelaDeduplicacao janela = janela(100);
+        assertThat(janela.registrar(42)).isTrue();
+
+        // Ainda dentro: a janela efetiva vai até uma largura de balde além dos 60 s
+        agoraMs.addAndGet(60_000);
+        assertThat(janela.registrar(7)).isTrue();
+        assertThat(janela.registrar(42)).isFalse();
+
+        // A chave só foi registrada no primeiro balde; a duplicada não renova
+        agoraMs.addAndGet(10_000);
+        assertThat(janela.registrar(42)).isTrue();
+        // 7 continua dentro da janela, no balde de 10 s atrás
+        assertThat(janela.registrar(7)).isFalse();
+    }
+
+    @Test
+    void baldeReaproveitadoNoAnelEsqueceAsChavesAntigas() {
+        JanelaDeduplicacao janela = janela(100);
+        assertThat(janela.registrar(42)).isTrue();
+
+        // Volta completa do anel (7 baldes): o balde original é esvaziado ao ser reutilizado
+        agoraMs.addAndGet(70_000);
+        assertThat(janela.registrar(99)).isTrue();
+        assertThat(janela.registrar(42)).isTrue();
+    }
+
+    @Test
+    void baldeCheioDeixaDeRegistrarSemSuprimir() {
+        JanelaDeduplicacao janela = janela(2);
+
+        assertThat(janela.registrar(1)).isTrue();
+        assertThat(janela.registrar(2)).isTrue();
+        assertThat(janela.registrar(3)).isTrue();
+        assertThat(janela.registrar(3)).isTrue();
+        assertThat(janela.naoRegistradas()).isEqualTo(2);
+        assertThat(janela.registrar(2)).isFalse();
+
+        // Balde seguinte tem espaço de novo
+        agoraMs.addAndGet(10_000);
+        assertThat(janela.registrar(3)).isTrue();
+        assertThat(janela.registrar(3)).isFalse();
+    }
+
+    @Test
+    void chaveZeroEAceita() {
+        JanelaDeduplicacao janela = janela(100);
+
+        assertThat(janela.registrar(0)).isTrue();
+        assertThat(janela.registrar(0)).isFalse();
+        janela.remover(0);
+        assertThat(janela.registrar(0)).isTrue();
+    }
+
+    @Test
+    void chaveRemovidaVoltaASerNova() {
+        JanelaDeduplicacao janela = janela(100);
+        assertThat(janela.registrar(42)).isTrue();
+        agoraMs.addAndGet(20_000);
+
+        janela.remover(42);
+
+        assertThat(janela.registrar(42)).isTrue();
+        assertThat(janela.registrar(42)).isFalse();
+    }
+
+    @Test
+    void janelaZeroNuncaSuprime() {
+        JanelaDeduplicacao janela = new JanelaDeduplicacao(Duration.ZERO, 6, 100, agoraMs::get);
+
+        assertThat(janela.registrar(42)).isTrue();
+        assertThat(janela.registrar(42)).isTrue();
+        janela.remover(42);
+        assertThat(janela.suprimidas()).isZero();
+    }
+
+    @Test
+    void chaveDependeDeTodasAsPartesEDaSeparacao() {
+        assertThat(JanelaDeduplicacao.chave("ABC1234", "RONDON", "PRACA 1", "NORTE"))
+                .isEqualTo(JanelaDeduplicacao.chave("ABC1234", "RONDON", "PRACA 1", "NORTE"))
+                .isNotEqualTo(JanelaDeduplicacao.chave("ABC1234", "RONDON", "PRACA 1", "SUL"));
+        assertThat(JanelaDeduplicacao.chave("AB", "C")).isNotEqualTo(JanelaDeduplicacao.chave("A", "BC"));
+        assertThat(JanelaDeduplicacao.chave("A", null)).isEqualTo(JanelaDeduplicacao.chave("A", ""));
+    }
+}
@@ -0,0 +1,67 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeitorCsvTests {
+
+    @Test
+    void leRegistrosSimplesComVirgulaOuPontoEVirgula() throws IOException {
+        assertThat(ler("placa,cor\nABC1234,PRATA\n", ',')).containsExactly(
+                List.of("placa", "cor"), List.of("ABC1234", "PRATA"));
+        assertThat(ler("placa;cor\r\nABC1234;PRATA", ';')).containsExactly(
+                List.of("placa", "cor"), List.of("ABC1234", "PRATA"));
+    }
+
+    @Test
+    void campoEntreAspasAceitaSeparadorQuebraDeLinhaEAspasDuplas() throws IOException {
+        String csv = "placa,observacao\nABC1234,\"visto em SP, \"\"urgente\"\"\nsegunda linha\"\n";
+
+        assertThat(ler(csv, ',')).containsExactly(
+                List.of("placa", "observacao"),
+                List.of("ABC1234", "visto em SP, \"urgente\"\nsegunda linha"));
+    }
+
+    @Test
+    void ignoraLinhasEmBrancoEMantemCamposVazios() throws IOException {
+        assertThat(ler("\nplaca,cor,motivo\n\r\nABC1234,,\n\n", ',')).containsExactly(
+                List.of("placa", "cor", "motivo"), List.of("ABC1234", "", ""));
+    }
+
+    @Test
+    void arquivoVazioNaoTemRegistros() throws IOException {
+        assertThat(ler("", ',')).isEmpty();
+        assertThat(ler("\n\r\n", ',')).isEmpty();
+    }
+
+    @Test
+    void escritaColocaAspasSoQuandoNecessarioEVoltaIgualNaLeitura() throws IOException {
+        StringBuilder saida = new StringBuilder();
+        for (String valor : new String[]{"simples", "com,virgula", "com \"aspas\"", "duas\nlinhas"}) {
+            if (!saida.isEmpty()) {
+                saida.append(',');
+            }
+            LeitorCsv.escreverCampo(saida, valor, ',');
+        }
+        assertThat(saida.toString()).startsWith("simples,\"com,virgula\",\"com \"\"aspas\"\"\",");
+
+        assertThat(ler(saida.toString(), ',')).containsExactly(
+                List.of("simples", "com,virgula", "com \"aspas\"", "duas\nlinhas"));
+    }
+
+    private static List<List<String>> ler(String csv, char separador) throws IOException {
+        LeitorCsv leitor = new LeitorCsv(new StringReader(csv), separador);
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro;
+        while ((registro = leitor.proximoRegistro()) != null) {
+            registros.add(registro);
+        }
+        return registros;
+    }
+}
@@ -0,0 +1,90 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongHashSetTests {
+
+    @Test
+    void cresceAlemDaCapacidadeInicialSemPerderElementos() {
+        LongHashSet conjunto = new LongHashSet(4);
+        for (long i = 1; i <= 10_000; i++) {
+            assertThat(conjunto.add(i * 31)).isTrue();
+        }
+
+        assertThat(conjunto.size()).isEqualTo(10_000);
+        for (long i = 1; i <= 10_000; i++) {
+            assertThat(conjunto.contains(i * 31)).isTrue();
+        }
+        assertThat(conjunto.contains(7)).isFalse();
+    }
+
+    @Test
+    void naoInsereDuplicado() {
+        LongHashSet conjunto = new LongHashSet();
+
+        assertThat(conjunto.add(42)).isTrue();
+        assertThat(conjunto.add(42)).isFalse();
+        assertThat(conjunto.size()).isEqualTo(1);
+    }
+
+    @Test
+    void zeroEReservado() {
+        LongHashSet conjunto = new LongHashSet();
+
+        assertThatThrownBy(() -> conjunto.add(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(conjunto.contains(0)).isFalse();
+        assertThat(conjunto.remove(0)).isFalse();
+    }
+
+    @Test
+    void remocaoComDeslocamentoMantemAsCadeiasDeSondagem() {
+        // Muitas inserções e remoções aleatórias em uma tabela pequena forçam colisões e deslocamentos
+        Random aleatorio = new Random(7);
+        LongHashSet conjunto = new LongHashSet();
+        Set<Long> referencia = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long valor = 1 + aleatorio.nextInt(512);
+            if (aleatorio.nextBoolean()) {
+                assertThat(conjunto.add(valor)).isEqualTo(referencia.add(valor));
+            } else {
+                assertThat(conjunto.remove(valor)).isEqualTo(referencia.remove(valor));
+            }
+        }
+
+        assertThat(conjunto.size()).isEqualTo(referencia.size());
+        for (long valor = 1; valor <= 512; valor++) {
+            assertThat(conjunto.contains(valor)).as("valor %d", valor).isEqualTo(referencia.contains(valor));
+        }
+    }
+
+    @Test
+    void copiaEIndependenteDoOriginal() {
+        LongHashSet original = new LongHashSet();
+        original.add(1);
+        LongHashSet copia = original.copia();
+
+        copia.add(2);
+        original.remove(1);
+
+        assertThat(copia.contains(1)).isTrue();
+        assertThat(original.contains(2)).isFalse();
+    }
+
+    @Test
+    void clearEsvaziaMantendoUso() {
+        LongHashSet conjunto = new LongHashSet();
+        conjunto.add(5);
+        conjunto.clear();
+
+        assertThat(conjunto.isEmpty()).isTrue();
+        assertThat(conjunto.contains(5)).isFalse();
+        assertThat(conjunto.add(5)).isTrue();
+    }
+}
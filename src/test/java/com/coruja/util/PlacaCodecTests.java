@@ -0,0 +1,65 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlacaCodecTests {
+
+    @Test
+    void codificaEDecodificaPlacaNoPadraoAntigo() {
+        long codigo = PlacaCodec.codificar("ABC1234");
+
+        assertThat(codigo).isNotEqualTo(PlacaCodec.INVALIDA).isNotZero();
+        assertThat(PlacaCodec.decodificar(codigo)).isEqualTo("ABC1234");
+    }
+
+    @Test
+    void codificaEDecodificaPlacaMercosul() {
+        long codigo = PlacaCodec.codificar("BRA2E19");
+
+        assertThat(PlacaCodec.decodificar(codigo)).isEqualTo("BRA2E19");
+        assertThat(codigo).isNotEqualTo(PlacaCodec.codificar("BRA2019"));
+    }
+
+    @Test
+    void ignoraCaixaDasLetras() {
+        assertThat(PlacaCodec.codificar("abc1d23")).isEqualTo(PlacaCodec.codificar("ABC1D23"));
+        assertThat(PlacaCodec.decodificar(PlacaCodec.codificar("abc1d23"))).isEqualTo("ABC1D23");
+    }
+
+    @Test
+    void rejeitaEntradasInvalidas() {
+        assertThat(PlacaCodec.codificar((String) null)).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar("")).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar("ABC123")).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar("ABC12345")).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar("ABC-123")).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar("ABC 123")).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar("ÁBC1234")).isEqualTo(PlacaCodec.INVALIDA);
+    }
+
+    @Test
+    void nenhumaPlacaValidaViraZero() {
+        assertThat(PlacaCodec.codificar("0000000")).isNotZero().isNotEqualTo(PlacaCodec.INVALIDA);
+    }
+
+    @Test
+    void codificaDiretoDosBytesComOMesmoResultado() {
+        byte[] mensagem = "RONDON|ABC1D23|x".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(PlacaCodec.codificar(mensagem, 7, 14)).isEqualTo(PlacaCodec.codificar("ABC1D23"));
+        assertThat(PlacaCodec.codificar(mensagem, 7, 13)).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar(mensagem, 10, 17)).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(PlacaCodec.codificar(null, 0, 7)).isEqualTo(PlacaCodec.INVALIDA);
+    }
+
+    @Test
+    void decodificarRejeitaCodigoInvalido() {
+        assertThatThrownBy(() -> PlacaCodec.decodificar(0L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PlacaCodec.decodificar(PlacaCodec.INVALIDA)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
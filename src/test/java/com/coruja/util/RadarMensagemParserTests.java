@@ -0,0 +1,119 @@
+package com.coruja.util;
+
+import com.coruja.dto.RadarMensagem;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RadarMensagemParserTests {
+
+    @Test
+    void interpretaLayoutRondonComSeteCampos() {
+        RadarMensagem leitura = interpretar("rondon|2025-03-14|14:35:12|ABC1D23|SP-270|372,500|OESTE");
+
+        assertThat(leitura.getConcessionaria()).isEqualTo("RONDON");
+        assertThat(leitura.getData()).isEqualTo(LocalDate.of(2025, 3, 14));
+        assertThat(leitura.getHora()).isEqualTo(LocalTime.of(14, 35, 12));
+        assertThat(leitura.getPlaca()).isEqualTo("ABC1D23");
+        assertThat(leitura.getPraca()).isEqualTo("N/A");
+        assertThat(leitura.getRodovia()).isEqualTo("SP-270");
+        assertThat(leitura.getKm()).isEqualTo("372,500");
+        assertThat(leitura.getSentido()).isEqualTo("OESTE");
+    }
+
+    @Test
+    void interpretaLayoutPadraoComOitoCampos() {
+        RadarMensagem leitura = interpretar("ENTREVIAS|2025-03-14|08:00:01|XYZ1234|PRACA OURINHOS|SP-270|372|LESTE");
+
+        assertThat(leitura.getConcessionaria()).isEqualTo("ENTREVIAS");
+        assertThat(leitura.getPlaca()).isEqualTo("XYZ1234");
+        assertThat(leitura.getPraca()).isEqualTo("PRACA OURINHOS");
+        assertThat(leitura.getRodovia()).isEqualTo("SP-270");
+        assertThat(leitura.getKm()).isEqualTo("372");
+        assertThat(leitura.getSentido()).isEqualTo("LESTE");
+    }
+
+    @Test
+    void camposExtrasAlemDoOitavoSaoIgnorados() {
+        RadarMensagem leitura = interpretar("CART|2025-03-14|08:00:01|XYZ1234|PRACA|SP-225|10|NORTE|extra|outro");
+
+        assertThat(leitura.getSentido()).isEqualTo("NORTE");
+    }
+
+    @Test
+    void mensagemComQuatroCamposDeixaOsDemaisComoNaoInformados() {
+        RadarMensagem leitura = interpretar("EIXO|2025-03-14|08:00|XYZ1234");
+
+        assertThat(leitura.getHora()).isEqualTo(LocalTime.of(8, 0));
+        assertThat(leitura.getPraca()).isEqualTo("N/A");
+        assertThat(leitura.getRodovia()).isEqualTo("N/A");
+        assertThat(leitura.getKm()).isEqualTo("N/A");
+        assertThat(leitura.getSentido()).isEqualTo("N/A");
+    }
+
+    @Test
+    void mensagemCurtaDemaisERejeitada() {
+        assertThatThrownBy(() -> interpretar("EIXO|2025-03-14|08:00:00"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("muito curto");
+        assertThatThrownBy(() -> interpretar("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void dataOuHoraInvalidasLancamDateTimeParseException() {
+        assertThatThrownBy(() -> interpretar("CART|2025-02-30|08:00:00|XYZ1234"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> interpretar("CART|14/03/2025|08:00:00|XYZ1234"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> interpretar("CART|2025-03-14|25:00:00|XYZ1234"))
+                .isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> interpretar("CART|2025-03-14|aa:bb:cc|XYZ1234"))
+                .isInstanceOf(DateTimeParseException.class);
+    }
+
+    @Test
+    void horaComFracaoDeSegundoUsaOParsePadrao() {
+        assertThat(interpretar("CART|2025-03-14|08:00:01.250|XYZ1234").getHora())
+                .isEqualTo(LocalTime.of(8, 0, 1, 250_000_000));
+    }
+
+    @Test
+    void extraiAPlacaDiretoDosBytes() {
+        byte[] mensagem = bytes("CART|2025-03-14|08:00:01|abc1d23|PRACA|SP-225|10|NORTE");
+
+        assertThat(RadarMensagemParser.codigoDaPlaca(mensagem)).isEqualTo(PlacaCodec.codificar("ABC1D23"));
+        assertThat(RadarMensagemParser.placa(mensagem)).isEqualTo("abc1d23");
+    }
+
+    @Test
+    void placaNaUltimaPosicaoEForaDoPadrao() {
+        assertThat(RadarMensagemParser.codigoDaPlaca(bytes("CART|2025-03-14|08:00:01|XYZ1234")))
+                .isEqualTo(PlacaCodec.codificar("XYZ1234"));
+
+        byte[] foraDoPadrao = bytes("CART|2025-03-14|08:00:01|AB-1234|PRACA|SP-225|10|NORTE");
+        assertThat(RadarMensagemParser.codigoDaPlaca(foraDoPadrao)).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(RadarMensagemParser.placa(foraDoPadrao)).isEqualTo("AB-1234");
+    }
+
+    @Test
+    void mensagemSemCampoDePlaca() {
+        byte[] curta = bytes("CART|2025-03-14|08:00:01");
+
+        assertThat(RadarMensagemParser.codigoDaPlaca(curta)).isEqualTo(PlacaCodec.INVALIDA);
+        assertThat(RadarMensagemParser.placa(curta)).isNull();
+    }
+
+    private static RadarMensagem interpretar(String mensagem) {
+        return RadarMensagemParser.interpretar(bytes(mensagem));
+    }
+
+    private static byte[] bytes(String mensagem) {
+        return mensagem.getBytes(StandardCharsets.UTF_8);
+    }
+}
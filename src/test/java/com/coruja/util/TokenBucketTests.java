@@ -0,0 +1,64 @@
+package com.coruja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    private final AtomicLong relogio = new AtomicLong(42 * SEGUNDO);
+
+    @Test
+    void comecaCheioEEsgotaNaCapacidade() {
+        TokenBucket balde = new TokenBucket(3, 1, relogio::get);
+
+        assertThat(balde.cheio()).isTrue();
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.tentarConsumir()).isFalse();
+    }
+
+    @Test
+    void repoeProporcionalmenteAoTempo() {
+        TokenBucket balde = new TokenBucket(1, 20d / 60, relogio::get); // 20 por minuto, como um grupo
+        assertThat(balde.tentarConsumir()).isTrue();
+
+        relogio.addAndGet(2 * SEGUNDO);
+        assertThat(balde.tentarConsumir()).isFalse();
+
+        relogio.addAndGet(SEGUNDO);
+        assertThat(balde.tentarConsumir()).isTrue();
+    }
+
+    @Test
+    void naoAcumulaAlemDaCapacidade() {
+        TokenBucket balde = new TokenBucket(2, 10, relogio::get);
+        balde.tentarConsumir();
+        balde.tentarConsumir();
+
+        relogio.addAndGet(60 * SEGUNDO);
+
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.tentarConsumir()).isFalse();
+    }
+
+    @Test
+    void devolverRecuperaFichaSemPassarDaCapacidade() {
+        TokenBucket balde = new TokenBucket(1, 1, relogio::get);
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.cheio()).isFalse();
+
+        balde.devolver();
+        balde.devolver();
+
+        assertThat(balde.cheio()).isTrue();
+        assertThat(balde.tentarConsumir()).isTrue();
+        assertThat(balde.tentarConsumir()).isFalse();
+    }
+}